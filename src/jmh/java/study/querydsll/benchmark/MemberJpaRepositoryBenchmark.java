@@ -0,0 +1,71 @@
+package study.querydsll.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.entity.Member;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 순수 JPA + QueryDSL 레포지토리(MemberJpaRepository) 벤치마크
+ * searchByBuilder (BooleanBuilder) vs search (where 파라미터 조립) 비교
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MemberJpaRepositoryBenchmark {
+
+    @Benchmark
+    public Optional<Member> findById(RepositoryState state) {
+        return state.memberJpaRepository.findById(state.memberId);
+    }
+
+    @Benchmark
+    public List<Member> findByUsername(RepositoryState state) {
+        return state.memberJpaRepository.findByUsername(state.username);
+    }
+
+    @Benchmark
+    public List<Member> findByUsername_QueryDsl(RepositoryState state) {
+        return state.memberJpaRepository.findByUsername_QueryDsl(state.username);
+    }
+
+    @Benchmark
+    public List<Member> findAll(RepositoryState state) {
+        return state.memberJpaRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Member> findAll_QueryDsl(RepositoryState state) {
+        return state.memberJpaRepository.findAll_QueryDsl();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder(RepositoryState state) {
+        return state.memberJpaRepository.searchByBuilder(state.condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search(RepositoryState state) {
+        return state.memberJpaRepository.search(state.condition);
+    }
+
+    @Benchmark
+    public void searchStream(RepositoryState state, Blackhole blackhole) {
+        try (Stream<MemberTeamDto> stream = state.memberJpaRepository.searchStream(state.condition, 1000)) {
+            stream.forEach(blackhole::consume);
+        }
+    }
+}
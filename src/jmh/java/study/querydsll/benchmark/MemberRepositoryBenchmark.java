@@ -0,0 +1,57 @@
+package study.querydsll.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import study.querydsll.dto.MemberCursorPage;
+import study.querydsll.dto.MemberTeamDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스프링 데이터 JPA + 사용자 정의 레포지토리(MemberRepositoryCustomImpl) 벤치마크
+ * 항상 카운트 (searchPageSimple) vs 카운트 생략 가능 (searchPageComplex) 비교
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    @Benchmark
+    public List<MemberTeamDto> search(RepositoryState state) {
+        return state.memberRepository.search(state.condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple_firstPage(RepositoryState state) {
+        return state.memberRepository.searchPageSimple(state.emptyCondition, state.firstPage);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple_middlePage(RepositoryState state) {
+        return state.memberRepository.searchPageSimple(state.emptyCondition, state.middlePage);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex_firstPage(RepositoryState state) {
+        return state.memberRepository.searchPageComplex(state.emptyCondition, state.firstPage);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex_middlePage(RepositoryState state) {
+        return state.memberRepository.searchPageComplex(state.emptyCondition, state.middlePage);
+    }
+
+    @Benchmark
+    public MemberCursorPage searchByCursor_firstPage(RepositoryState state) {
+        return state.memberRepository.searchByCursor(state.emptyCondition, null, RepositoryState.PAGE_SIZE);
+    }
+}
@@ -0,0 +1,105 @@
+package study.querydsll.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsll.QuerydsllApplication;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.repository.MemberJpaRepository;
+import study.querydsll.repository.MemberRepository;
+import study.querydsll.repository.TeamDictionary;
+import study.querydsll.repository.UsernameIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 공용 상태
+ * 임베디드 H2 (in-memory) 로 애플리케이션 컨텍스트를 띄우고 memberCount 만큼 데이터 적재
+ */
+@State(Scope.Benchmark)
+public class RepositoryState {
+
+    static final int TEAM_COUNT = 10;
+    static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    public int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+
+    // teamName + age 범위 조건 (대략 2% 선택도)
+    MemberSearchCond condition;
+    // 조건 없음 (전체 스캔)
+    MemberSearchCond emptyCondition;
+    Pageable firstPage;
+    Pageable middlePage;
+    String username;
+    Long memberId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(QuerydsllApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        // 카운트 쿼리 비용을 측정하기 위해 카운트 캐시 / 비트맵 카운트 인덱스 비활성화
+                        "--member.count-cache.max-size=0",
+                        "--member.count-index.enabled=false");
+
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        load(context.getBean(JdbcTemplate.class));
+        // JDBC 로 직접 적재했으므로 엔티티 리스너를 거치지 않음 -> 팀 사전 무효화, 빈 테이블로 만든 username 인덱스 재구성
+        context.getBean(TeamDictionary.class).invalidate();
+        context.getBean(UsernameIndex.class).rebuild();
+
+        condition = new MemberSearchCond(null, "team1", 20, 29);
+        emptyCondition = new MemberSearchCond(null, null, null, null);
+        firstPage = PageRequest.of(0, PAGE_SIZE);
+        middlePage = PageRequest.of(memberCount / PAGE_SIZE / 2, PAGE_SIZE);
+        username = "member" + (memberCount / 2);
+        memberId = (long) (TEAM_COUNT + memberCount / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void load(JdbcTemplate jdbcTemplate) {
+        List<Object[]> teams = new ArrayList<>();
+        for (long i = 1; i <= TEAM_COUNT; i++) {
+            teams.add(new Object[]{i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new Object[]{(long) (TEAM_COUNT + 1 + i), "member" + i, i % 100, (long) (i % TEAM_COUNT + 1)});
+            if (members.size() == 1000) {
+                insertMembers(jdbcTemplate, members);
+                members.clear();
+            }
+        }
+        insertMembers(jdbcTemplate, members);
+    }
+
+    private void insertMembers(JdbcTemplate jdbcTemplate, List<Object[]> members) {
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+    }
+}
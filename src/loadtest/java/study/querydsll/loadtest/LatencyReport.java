@@ -0,0 +1,96 @@
+package study.querydsll.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 지연 시간 기록 (HdrHistogram, 마이크로초, 유효 숫자 3자리)
+ * - corrected : 예정 시작 시각부터 응답 완료까지 (coordinated omission 보정, 사용자가 겪는 지연)
+ * - service : 실제 전송 시각부터 응답 완료까지 (보정 전, 서버 처리 시간에 가까움)
+ * 부하 발생기가 밀려 늦게 보낸 요청은 밀린 시간만큼 corrected 에 포함되므로
+ * 서버가 멈춘 동안 보내지 못한 요청의 지연이 통계에서 빠지지 않음
+ */
+class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long intendedStartNanos, long sentNanos, long completedNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.corrected.recordValue(micros(completedNanos - intendedStartNanos));
+        stats.service.recordValue(micros(completedNanos - sentNanos));
+        stats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-8s %-10s %8s %10s", "endpoint", "latency", "count", "req/s");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9s", "p" + format(percentile));
+        }
+        out.printf(" %9s  %s%n", "max", "status");
+
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint stats = entry.getValue();
+            line(out, entry.getKey(), "corrected", stats.corrected, elapsedSeconds, stats.statusSummary());
+            line(out, entry.getKey(), "service", stats.service, elapsedSeconds, "");
+        }
+        out.println("(ms, status -1 = 연결 오류 / 타임아웃)");
+    }
+
+    // 엔드포인트별 .hgrm (HdrHistogram plotter 로 시각화 가능)
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            write(directory.resolve(entry.getKey() + "-corrected.hgrm"), entry.getValue().corrected);
+            write(directory.resolve(entry.getKey() + "-service.hgrm"), entry.getValue().service);
+        }
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static void line(PrintStream out, String endpoint, String kind, Histogram histogram, double elapsedSeconds, String statuses) {
+        out.printf("%-8s %-10s %8d %10.1f", endpoint, kind, histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(" %9.2f  %s%n", histogram.getMaxValue() / 1000.0, statuses);
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(0, Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static class Endpoint {
+
+        private final Histogram corrected = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Histogram service = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private String statusSummary() {
+            StringBuilder summary = new StringBuilder();
+            new TreeMap<>(statuses).forEach((status, count) ->
+                    summary.append(summary.length() == 0 ? "" : ", ").append(status).append('=').append(count.sum()));
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package study.querydsll.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 고정 요청률(open model) 부하 발생기
+ * 애플리케이션을 loadtest 프로필로 띄운 뒤 (InitLoadTestMember 가 합성 데이터 적재) 실행
+ * ./gradlew loadtest -PloadtestArgs="--rate=200 --duration=60 --mix=v1:2,v2:1,v3:7"
+ *
+ * i 번째 요청의 예정 시작 시각은 start + i / rate 로 고정하고 응답을 기다리지 않고 비동기 전송
+ * 동시 요청 수가 max-in-flight 에 도달하거나 발생기가 밀리면 전송이 늦어지지만
+ * 지연 시간은 예정 시작 시각부터 측정하므로 coordinated omission 이 보정됨 (LatencyReport)
+ *
+ * 옵션 (기본값)
+ * --base-url (http://localhost:8080) --rate 초당 요청 수 (200) --duration 측정 초 (60) --warmup 워밍업 초 (10)
+ * --mix 엔드포인트 가중치 (v1:2,v2:1,v3:7) --max-in-flight (256) --timeout 요청 타임아웃 초 (30)
+ * --teams / --team-exponent 적재 데이터와 같은 팀 분포 (50 / 1.1) --seed (7) --report-dir (build/reports/loadtest)
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "256"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "30")));
+        RequestMix mix = new RequestMix(options.getOrDefault("mix", "v1:2,v2:1,v3:7"),
+                Integer.parseInt(options.getOrDefault("teams", "50")),
+                Double.parseDouble(options.getOrDefault("team-exponent", "1.1")));
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "7")));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/reports/loadtest"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        LatencyReport report = new LatencyReport();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long totalNanos = warmupNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        System.out.printf("load test %s rate=%.1f/s warmup=%ds duration=%ds maxInFlight=%d%n",
+                baseUrl, rate, warmupSeconds, durationSeconds, maxInFlight);
+
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long offset = i * intervalNanos;
+            if (offset >= totalNanos) {
+                break;
+            }
+            long intendedStart = start + offset;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            RequestMix.Request request = mix.next(random);
+            boolean measured = offset >= warmupNanos;
+            HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + request.pathAndQuery))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long completed = System.nanoTime();
+                        inFlight.release();
+                        if (measured) {
+                            report.record(request.endpoint, intendedStart, sent, completed, error == null ? response.statusCode() : -1);
+                        }
+                    });
+        }
+
+        // 남은 요청 완료 대기
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            System.out.println("일부 요청이 타임아웃 내에 완료되지 않았습니다. in-flight=" + (maxInFlight - inFlight.availablePermits()));
+        }
+
+        report.print(System.out, durationSeconds);
+        report.write(reportDir);
+        System.out.println("histogram: " + reportDir.toAbsolutePath());
+    }
+
+    // --key=value 형식
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("옵션은 --key=value 형식이어야 합니다. arg=" + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,140 @@
+package study.querydsll.loadtest;
+
+import study.querydsll.service.SyntheticMemberDataset;
+import study.querydsll.service.ZipfDistribution;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * /v1 ~ /v3/members 가중치 요청 조합
+ * 검색 조건 / 페이지는 적재 데이터(SyntheticMemberDataset)와 같은 분포로 생성
+ * - teamName : 큰 팀일수록 자주 조회 (Zipf), /v1 은 전체 목록이 되지 않도록 항상 teamName 포함
+ * - username : EXACT (적재와 같은 생성 규칙) / PREFIX (이름 앞 2 ~ 4글자) / CONTAINS (이름 중간 3글자)
+ * - age : 범위 / 하한만 / 상한만 / 없음
+ * - page : 대부분 첫 페이지, 일부 앞쪽 페이지, 드물게 깊은 페이지 / size 10, 20, 50
+ * - count (v2, v3) : EXACT 70%, CAPPED 20%, ESTIMATED 10%
+ */
+class RequestMix {
+
+    private final List<String> endpoints = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final int totalWeight;
+    private final ZipfDistribution teams;
+    private final ZipfDistribution givenNames = SyntheticMemberDataset.givenNames();
+    private final ZipfDistribution surnames = SyntheticMemberDataset.surnames();
+    private final ZipfDistribution deepPages = new ZipfDistribution(500, 0.8);
+
+    // ex) "v1:2,v2:1,v3:7"
+    RequestMix(String weights, int teamCount, double teamExponent) {
+        int total = 0;
+        for (String entry : weights.split(",")) {
+            String[] pair = entry.trim().split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight <= 0) {
+                continue;
+            }
+            total += weight;
+            endpoints.add(pair[0].trim());
+            cumulativeWeights.add(total);
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("요청 가중치가 없습니다. mix=" + weights);
+        }
+        this.totalWeight = total;
+        this.teams = new ZipfDistribution(teamCount, teamExponent);
+    }
+
+    Request next(Random random) {
+        int pick = random.nextInt(totalWeight);
+        int index = 0;
+        while (cumulativeWeights.get(index) <= pick) {
+            index++;
+        }
+        String endpoint = endpoints.get(index);
+
+        StringBuilder query = new StringBuilder();
+        boolean list = endpoint.equals("v1");
+        if (list || random.nextDouble() < 0.6) {
+            param(query, "teamName", SyntheticMemberDataset.teamName(teams.sample(random)));
+        }
+        if (random.nextDouble() < 0.25) {
+            username(query, random);
+        }
+        double age = random.nextDouble();
+        if (age < 0.4) {
+            int goe = 15 + random.nextInt(45);
+            param(query, "ageGoe", String.valueOf(goe));
+            param(query, "ageLoe", String.valueOf(goe + 5 + random.nextInt(26)));
+        } else if (age < 0.5) {
+            param(query, "ageGoe", String.valueOf(15 + random.nextInt(60)));
+        } else if (age < 0.6) {
+            param(query, "ageLoe", String.valueOf(20 + random.nextInt(60)));
+        }
+
+        if (!list) {
+            param(query, "page", String.valueOf(page(random)));
+            param(query, "size", String.valueOf(size(random)));
+            param(query, "count", countMode(random));
+        }
+        return new Request(endpoint, "/" + endpoint + "/members" + (query.length() == 0 ? "" : "?" + query));
+    }
+
+    private void username(StringBuilder query, Random random) {
+        double match = random.nextDouble();
+        if (match < 0.5) {
+            param(query, "username", SyntheticMemberDataset.username(random, givenNames, surnames));
+            return;
+        }
+        String name = SyntheticMemberDataset.givenName(givenNames.sample(random));
+        if (match < 0.8) {
+            param(query, "username", name.substring(0, Math.min(name.length(), 2 + random.nextInt(3))));
+            param(query, "usernameMatch", "PREFIX");
+        } else {
+            int from = name.length() > 3 ? random.nextInt(name.length() - 2) : 0;
+            param(query, "username", name.substring(from, Math.min(name.length(), from + 3)));
+            param(query, "usernameMatch", "CONTAINS");
+        }
+    }
+
+    private int page(Random random) {
+        double kind = random.nextDouble();
+        if (kind < 0.7) {
+            return 0;
+        } else if (kind < 0.9) {
+            return 1 + random.nextInt(5);
+        }
+        return 1 + deepPages.sample(random);
+    }
+
+    private int size(Random random) {
+        double kind = random.nextDouble();
+        return kind < 0.3 ? 10 : kind < 0.9 ? 20 : 50;
+    }
+
+    private String countMode(Random random) {
+        double kind = random.nextDouble();
+        return kind < 0.7 ? "EXACT" : kind < 0.9 ? "CAPPED" : "ESTIMATED";
+    }
+
+    private static void param(StringBuilder query, String name, String value) {
+        if (query.length() > 0) {
+            query.append('&');
+        }
+        query.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    static class Request {
+
+        final String endpoint;
+        final String pathAndQuery;
+
+        Request(String endpoint, String pathAndQuery) {
+            this.endpoint = endpoint;
+            this.pathAndQuery = pathAndQuery;
+        }
+    }
+}
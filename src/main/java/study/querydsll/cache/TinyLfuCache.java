@@ -0,0 +1,168 @@
+package study.querydsll.cache;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 크기 제한 W-TinyLFU 캐시
+ * - window (1%, LRU) : 새 항목은 먼저 window 에 들어가 짧은 시간 안의 재사용(burst)을 흡수
+ * - main (99%, SLRU = probation 20% + protected 80%) : window 에서 밀려난 항목은
+ *   probation 의 LRU 희생자보다 접근 빈도(FrequencySketch)가 높을 때만 들어감 -> 한번 쓰고 마는 키가 자주 쓰는 키를 밀어내지 않음
+ * - probation 에서 다시 접근되면 protected 로 승격, protected 초과분은 probation 으로 강등
+ * 모든 연산은 synchronized (near cache 용도의 작은 캐시)
+ */
+public class TinyLfuCache<K, V> {
+
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+    private final FrequencySketch sketch;
+
+    // access-order LinkedHashMap : 첫 항목이 LRU
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public TinyLfuCache(int maximumSize) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("maximumSize 는 2 이상이어야 합니다. maximumSize = " + maximumSize);
+        }
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 8 / 10;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+
+        V value = window.get(key);
+        if (value == null) {
+            value = protectedSegment.get(key);
+        }
+        if (value == null) {
+            value = probation.remove(key);
+            if (value != null) {
+                protectedSegment.put(key, value);
+                demoteProtected();
+            }
+        }
+
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probation.put(key, value);
+        } else if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+        } else {
+            window.put(key, value);
+            if (window.size() > windowMaximum) {
+                Map.Entry<K, V> candidate = removeEldest(window);
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    /**
+     * 캐시에 있는 키 중 추정 접근 빈도가 높은 순서로 limit 개
+     */
+    public synchronized List<HotKey<K>> hotKeys(int limit) {
+        List<HotKey<K>> keys = new ArrayList<>(size());
+        for (Map<K, V> segment : List.of(window, probation, protectedSegment)) {
+            for (K key : segment.keySet()) {
+                keys.add(new HotKey<>(key, sketch.frequency(key)));
+            }
+        }
+        keys.sort(Comparator.comparingInt(HotKey<K>::getFrequency).reversed());
+        return keys.size() > limit ? new ArrayList<>(keys.subList(0, limit)) : keys;
+    }
+
+    // window 에서 밀려난 후보와 probation LRU 희생자 중 접근 빈도가 높은 쪽만 남김
+    private void admit(K candidateKey, V candidateValue) {
+        if (probation.size() + protectedSegment.size() < mainMaximum) {
+            probation.put(candidateKey, candidateValue);
+            return;
+        }
+        LinkedHashMap<K, V> victims = probation.isEmpty() ? protectedSegment : probation;
+        K victimKey = victims.keySet().iterator().next();
+        evictions++;
+        if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+            victims.remove(victimKey);
+            probation.put(candidateKey, candidateValue);
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedSegment.size() > protectedMaximum) {
+            Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> segment) {
+        Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, V> eldest = iterator.next();
+        Map.Entry<K, V> copy = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return copy;
+    }
+
+    @Getter
+    public static class HotKey<K> {
+
+        private final K key;
+        private final int frequency;
+
+        private HotKey(K key, int frequency) {
+            this.key = key;
+            this.frequency = frequency;
+        }
+    }
+}
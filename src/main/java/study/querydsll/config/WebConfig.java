@@ -0,0 +1,25 @@
+package study.querydsll.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.querydsll.limit.RequestDeadlineInterceptor;
+import study.querydsll.limit.SearchLoadSheddingInterceptor;
+import study.querydsll.sql.SqlStatementBudgetInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlStatementBudgetInterceptor sqlStatementBudgetInterceptor;
+    private final SearchLoadSheddingInterceptor searchLoadSheddingInterceptor;
+    private final RequestDeadlineInterceptor requestDeadlineInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementBudgetInterceptor);
+        registry.addInterceptor(searchLoadSheddingInterceptor);
+        registry.addInterceptor(requestDeadlineInterceptor);
+    }
+}
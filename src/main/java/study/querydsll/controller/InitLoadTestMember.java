@@ -0,0 +1,73 @@
+package study.querydsll.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.entity.Team;
+import study.querydsll.service.MemberBulkLoader;
+import study.querydsll.service.SyntheticMemberDataset;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트용 데이터 적재 (--spring.profiles.active=loadtest)
+ * member.load-test.dataset.* 설정으로 회원 수 / 팀 수 / 팀 크기 Zipf 지수 / seed 지정 (SyntheticMemberDataset)
+ * 팀은 한 트랜잭션에서 먼저 저장하고, 회원은 MemberBulkLoader 로 청크 단위 병렬 적재
+ */
+@Slf4j
+@Profile("loadtest")
+@Component
+@RequiredArgsConstructor
+public class InitLoadTestMember {
+
+    private final InitLoadTestMemberService initLoadTestMemberService;
+    private final MemberBulkLoader memberBulkLoader;
+
+    @Value("${member.load-test.dataset.members:100000}")
+    private long members;
+
+    @Value("${member.load-test.dataset.teams:50}")
+    private int teams;
+
+    @Value("${member.load-test.dataset.team-exponent:1.1}")
+    private double teamExponent;
+
+    @Value("${member.load-test.dataset.no-team-ratio:0.02}")
+    private double noTeamRatio;
+
+    @Value("${member.load-test.dataset.seed:42}")
+    private long seed;
+
+    @PostConstruct
+    public void init() {
+        List<Long> teamIds = initLoadTestMemberService.createTeams(teams);
+        log.info("load test dataset. members={}, teams={}, teamExponent={}, seed={}", members, teams, teamExponent, seed);
+        memberBulkLoader.load(new SyntheticMemberDataset(members, teamIds, teamExponent, noTeamRatio, seed));
+    }
+
+    @Component
+    static class InitLoadTestMemberService {
+
+        @PersistenceContext
+        EntityManager em;
+
+        // 순위 순서 (team0 이 가장 큰 팀)
+        @Transactional
+        public List<Long> createTeams(int count) {
+            List<Long> teamIds = new ArrayList<>(count);
+            for (int rank = 0; rank < count; rank++) {
+                Team team = new Team(SyntheticMemberDataset.teamName(rank));
+                em.persist(team);
+                teamIds.add(team.getId());
+            }
+            return teamIds;
+        }
+    }
+}
@@ -3,13 +3,33 @@ package study.querydsll.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.querydsll.dto.CountMode;
+import study.querydsll.dto.InvalidCursorException;
+import study.querydsll.dto.MemberCursorPage;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.dto.SearchShapeAdvice;
+import study.querydsll.limit.RequestDeadline;
+import study.querydsll.limit.SearchBulkhead;
+import study.querydsll.repository.DataVersion;
+import study.querydsll.cache.TinyLfuCache;
 import study.querydsll.repository.MemberJpaRepository;
 import study.querydsll.repository.MemberRepository;
+import study.querydsll.repository.MemberNearCache;
+import study.querydsll.repository.MemberSearchIndexAdvisor;
+import study.querydsll.service.MemberExportService;
+import study.querydsll.sql.SqlStatementBudget;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -21,19 +41,88 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberExportService memberExportService;
+    private final MemberSearchIndexAdvisor memberSearchIndexAdvisor;
+    private final DataVersion dataVersion;
+    private final MemberNearCache memberNearCache;
 
+    // 조건부 GET (v1 ~ v3): If-None-Match 가 현재 ETag 와 같으면 DB 조회 없이 304 응답 (null 반환 시 본문 생략)
+    // ETag 는 member / team 데이터 버전 + 검색 조건 + 페이지 정보로 생성하므로 쓰기가 없으면 그대로 유지됨
+    // 요청 deadline (member.request-deadline, X-Request-Deadline 헤더) 이 지나면 쿼리 취소 후 504
+    // v2, v3 의 count 파라미터 (EXACT | CAPPED | ESTIMATED) 로 전체 카운트 방식 선택, 방식마다 응답이 다르므로 ETag 에 포함
+    @SqlStatementBudget(1)
+    @SearchBulkhead(SearchBulkhead.Type.LIST)
+    @RequestDeadline("v1")
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCond condition) {
+    public List<MemberTeamDto> searchMemberV1(MemberSearchCond condition, WebRequest request) {
+        if (request.checkNotModified(dataVersion.memberSearchETag("v1", condition, null))) {
+            return null;
+        }
         return memberJpaRepository.search(condition);
     }
 
+    @SqlStatementBudget(2)
+    @SearchBulkhead(SearchBulkhead.Type.PAGED)
+    @RequestDeadline("v2")
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCond condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV2(MemberSearchCond condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "EXACT") CountMode count,
+                                              WebRequest request) {
+        if (request.checkNotModified(dataVersion.memberSearchETag("v2/" + count, condition, pageable))) {
+            return null;
+        }
+        return memberRepository.searchPageSimple(condition, pageable, count);
     }
 
+    @SqlStatementBudget(2)
+    @SearchBulkhead(SearchBulkhead.Type.PAGED)
+    @RequestDeadline("v3")
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCond condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCond condition, Pageable pageable,
+                                              @RequestParam(defaultValue = "EXACT") CountMode count,
+                                              WebRequest request) {
+        if (request.checkNotModified(dataVersion.memberSearchETag("v3/" + count, condition, pageable))) {
+            return null;
+        }
+        return memberRepository.searchPageComplex(condition, pageable, count);
+    }
+
+    // size 는 1 ~ member.cursor.max-size 로 보정, 잘못된 커서는 400
+    @SqlStatementBudget(1)
+    @RequestDeadline("v4")
+    @GetMapping("/v4/members")
+    public MemberCursorPage searchMemberV4(MemberSearchCond condition,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        return memberRepository.searchByCursor(condition, cursor, size);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    // 회원 + 팀 스냅샷 단건 조회 (near cache 적중 시 쿼리 없음)
+    @SqlStatementBudget(1)
+    @GetMapping("/members/{memberId}")
+    public ResponseEntity<MemberTeamDto> member(@PathVariable Long memberId) {
+        return ResponseEntity.of(memberJpaRepository.findSnapshotById(memberId));
+    }
+
+    @GetMapping("/members/export")
+    public void exportMembers(MemberSearchCond condition, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        memberExportService.export(condition, response.getOutputStream());
+    }
+
+    @GetMapping("/members/index-advice")
+    public List<SearchShapeAdvice> indexAdvice() {
+        return memberSearchIndexAdvisor.advise();
+    }
+
+    @GetMapping("/members/near-cache/hot-keys")
+    public List<TinyLfuCache.HotKey<Long>> nearCacheHotKeys() {
+        return memberNearCache.hotKeys();
     }
 }
@@ -0,0 +1,36 @@
+package study.querydsll.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsll.dto.TeamRosterDto;
+import study.querydsll.entity.TeamStats;
+import study.querydsll.repository.TeamRepository;
+import study.querydsll.repository.TeamStatsRepository;
+import study.querydsll.sql.SqlStatementBudget;
+
+@RequiredArgsConstructor
+@RestController
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+    private final TeamStatsRepository teamStatsRepository;
+
+    // 팀 페이지 (size + 1) + 회원 in 쿼리, 카운트 쿼리 없음
+    @SqlStatementBudget(2)
+    @GetMapping("/teams")
+    public Slice<TeamRosterDto> teams(Pageable pageable) {
+        return teamRepository.findRosters(pageable);
+    }
+
+    // 팀 통계 읽기 모델 PK 조회 (집계 쿼리 X)
+    @SqlStatementBudget(1)
+    @GetMapping("/teams/{teamId}/stats")
+    public ResponseEntity<TeamStats> teamStats(@PathVariable Long teamId) {
+        return ResponseEntity.of(teamStatsRepository.findById(teamId));
+    }
+}
\ No newline at end of file
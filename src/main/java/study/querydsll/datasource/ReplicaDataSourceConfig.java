@@ -0,0 +1,53 @@
+package study.querydsll.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * member.datasource.replica-urls 가 설정된 경우에만 읽기 / 쓰기 라우팅 데이터소스 등록
+ * 프라이머리는 spring.datasource 설정, 레플리카는 같은 계정 / 드라이버에 url 만 다르게 생성
+ * DataSource 빈을 하나만 노출해야 p6spy 데코레이터가 문장을 중복 집계하지 않음
+ */
+@Configuration
+@ConditionalOnProperty("member.datasource.replica-urls")
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${member.datasource.replica-urls}") List<String> replicaUrls,
+                                 @Value("${member.datasource.replica-retry-after:5s}") Duration retryAfter) {
+
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = replicaUrls.stream()
+                .map(url -> DataSourceBuilder.create()
+                        .driverClassName(properties.determineDriverClassName())
+                        .url(url)
+                        .username(properties.determineUsername())
+                        .password(properties.determinePassword())
+                        .build())
+                .collect(Collectors.toList());
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, retryAfter);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void destroy() {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package study.querydsll.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 읽기 / 쓰기 데이터소스 라우팅
+ * 읽기 전용 트랜잭션 (@Transactional(readOnly = true)) 은 레플리카 풀로, 그 외에는 프라이머리로 보냄
+ * 레플리카 선택: 사용 중인 커넥션 수가 가장 적은 레플리카 (같으면 라운드 로빈 순서)
+ * 커넥션 획득에 실패한 레플리카는 retryAfter 동안 제외하고 다음 레플리카 -> 프라이머리 순으로 대체
+ *
+ * 트랜잭션 매니저는 읽기 전용 플래그를 바인딩하기 전에 커넥션을 요청하므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 시점에 라우팅해야 함
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? replicaConnection(null, null)
+                : primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? replicaConnection(username, password)
+                : primary.getConnection(username, password);
+    }
+
+    private Connection replicaConnection(String username, String password) throws SQLException {
+        List<Replica> tried = new ArrayList<>();
+        Replica replica;
+        while ((replica = select(tried)) != null) {
+            tried.add(replica);
+            try {
+                Connection connection = username == null
+                        ? replica.dataSource.getConnection()
+                        : replica.dataSource.getConnection(username, password);
+                return replica.track(connection);
+            } catch (SQLException e) {
+                replica.markDown(retryAfterNanos);
+                log.warn("레플리카 커넥션 획득 실패, {} 동안 제외: {}", Duration.ofNanos(retryAfterNanos), replica.name, e);
+            }
+        }
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    // 라운드 로빈 시작 위치부터 한바퀴 돌며 사용 가능한 레플리카 중 사용 중 커넥션이 가장 적은 것 선택
+    private Replica select(List<Replica> excluded) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        long now = System.nanoTime();
+        Replica selected = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (excluded.contains(candidate) || !candidate.isAvailable(now)) {
+                continue;
+            }
+            if (selected == null || candidate.inFlight.get() < selected.inFlight.get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    public int inFlight(int replicaIndex) {
+        return replicas.get(replicaIndex).inFlight.get();
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                log.warn("데이터소스 종료 실패", e);
+            }
+        }
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong downUntil = new AtomicLong();
+        private volatile boolean down;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            return !down || now - downUntil.get() >= 0;
+        }
+
+        private void markDown(long retryAfterNanos) {
+            downUntil.set(System.nanoTime() + retryAfterNanos);
+            down = true;
+        }
+
+        // close 될 때까지 사용 중 커넥션 수에 포함 (close 는 여러번 호출될 수 있으므로 한번만 차감)
+        private Connection track(Connection target) {
+            down = false;
+            inFlight.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getTargetConnection":
+                        return target;
+                    case "close":
+                        if (closed.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                }
+                return invoke(target, method, args);
+            };
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class}, handler);
+        }
+
+        private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 연산 진행 상황 (청크 하나)
+ */
+@Getter
+@ToString
+public class BulkChunkResult {
+
+    private final int chunk;
+    private final Long firstId;
+    private final Long lastId;
+    private final long affectedRows;
+    private final long elapsedMillis;
+
+    public BulkChunkResult(int chunk, Long firstId, Long lastId, long affectedRows, long elapsedMillis) {
+        this.chunk = chunk;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.affectedRows = affectedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,24 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 벌크 적재 결과 (적재 건수, 청크 수, 소요 시간, 초당 처리 건수)
+ */
+@Getter
+@ToString
+public class BulkLoadResult {
+
+    private final long rows;
+    private final long chunks;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+
+    public BulkLoadResult(long rows, long chunks, long elapsedMillis) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 청크 단위 벌크 연산 결과 (전체 영향 건수 + 청크별 진행 상황)
+ */
+@Getter
+public class BulkOperationResult {
+
+    private final long affectedRows;
+    private final List<BulkChunkResult> chunks;
+
+    public BulkOperationResult(List<BulkChunkResult> chunks) {
+        this.affectedRows = chunks.stream().mapToLong(BulkChunkResult::getAffectedRows).sum();
+        this.chunks = chunks;
+    }
+}
@@ -0,0 +1,11 @@
+package study.querydsll.dto;
+
+/**
+ * 페이징 전체 카운트 방식 (/v2, /v3 의 count 파라미터)
+ * - EXACT : 정확한 카운트 (기본값)
+ * - CAPPED : 상한(member.count.cap)까지만 세고 넘으면 "10,000+" 로 표시
+ * - ESTIMATED : 팀 통계(TeamStats) 기반 추정치, 추정할 수 없는 조건이면 CAPPED
+ */
+public enum CountMode {
+    EXACT, CAPPED, ESTIMATED
+}
@@ -0,0 +1,28 @@
+package study.querydsll.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * 카운트 방식이 포함된 페이지
+ * totalExact 가 false 이면 totalElements 는 CAPPED 의 경우 하한("이상"), ESTIMATED 의 경우 추정치
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final CountMode countMode;
+    private final boolean totalExact;
+
+    public CountedPage(Page<T> page, CountMode countMode, boolean totalExact) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.countMode = countMode;
+        this.totalExact = totalExact;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,12 @@
+package study.querydsll.dto;
+
+/**
+ * 디코딩할 수 없는 커서 토큰 (클라이언트 입력 오류 -> 400 Bad Request)
+ * IllegalArgumentException 은 레포지토리 예외 변환에서 InvalidDataAccessApiUsageException 으로 바뀌므로 RuntimeException 사용
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String token, Throwable cause) {
+        super("잘못된 커서 토큰입니다. cursor = " + token, cause);
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Keyset 페이징 결과 (컨텐츠 + 다음 페이지 커서)
+ * 다음 페이지가 없으면 nextCursor 는 null
+ */
+@Getter
+public class MemberCursorPage {
+
+    private final List<MemberTeamDto> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public MemberCursorPage(List<MemberTeamDto> content, int size, boolean hasNext) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = hasNext ? MemberCursor.from(content.get(content.size() - 1)).encode() : null;
+    }
+}
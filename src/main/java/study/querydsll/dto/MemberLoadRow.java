@@ -0,0 +1,20 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+
+/**
+ * 벌크 적재 입력 한 행
+ */
+@Getter
+public class MemberLoadRow {
+
+    private final String username;
+    private final int age;
+    private final Long teamId;
+
+    public MemberLoadRow(String username, int age, Long teamId) {
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+    }
+}
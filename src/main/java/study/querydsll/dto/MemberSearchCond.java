@@ -1,6 +1,7 @@
 package study.querydsll.dto;
 
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * Created by Hunseong on 2022/04/27
@@ -13,10 +14,22 @@ public class MemberSearchCond {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    // username 비교 방식 (기본 EXACT). 생성자 바인딩 이후 요청 파라미터 usernameMatch 로 설정
+    @Setter
+    private UsernameMatch usernameMatch = UsernameMatch.EXACT;
+
     public MemberSearchCond(String username, String teamName, Integer ageGoe, Integer ageLoe) {
         this.username = username;
         this.teamName = teamName;
         this.ageGoe = ageGoe;
         this.ageLoe = ageLoe;
     }
+
+    public UsernameMatch getUsernameMatch() {
+        return usernameMatch != null ? usernameMatch : UsernameMatch.EXACT;
+    }
+
+    public enum UsernameMatch {
+        EXACT, PREFIX, CONTAINS
+    }
 }
@@ -0,0 +1,28 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+
+/**
+ * 검색 조건 형태별 실행 통계 + 인덱스 제안
+ * 사용 가능한 인덱스가 있거나 느리지 않으면 suggestedIndex 는 null
+ */
+@Getter
+public class SearchShapeAdvice {
+
+    private final String shape;
+    private final long executions;
+    private final double avgMillis;
+    private final double maxMillis;
+    private final String usableIndex;
+    private final String suggestedIndex;
+
+    public SearchShapeAdvice(String shape, long executions, double avgMillis, double maxMillis,
+                             String usableIndex, String suggestedIndex) {
+        this.shape = shape;
+        this.executions = executions;
+        this.avgMillis = avgMillis;
+        this.maxMillis = maxMillis;
+        this.usableIndex = usableIndex;
+        this.suggestedIndex = suggestedIndex;
+    }
+}
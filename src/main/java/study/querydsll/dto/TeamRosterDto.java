@@ -0,0 +1,22 @@
+package study.querydsll.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 팀 + 소속 회원 목록
+ */
+@Getter
+public class TeamRosterDto {
+
+    private final Long teamId;
+    private final String teamName;
+    private final List<MemberDto> members;
+
+    public TeamRosterDto(Long teamId, String teamName, List<MemberDto> members) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members;
+    }
+}
@@ -11,13 +11,21 @@ import javax.persistence.*;
  * Created by Hunseong on 2022/04/26
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_age", columnList = "age")
+})
+@EntityListeners(MemberEntityListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
+    // pooled 옵티마이저 : 시퀀스 한번 호출로 allocationSize 만큼 식별자 할당 (insert 마다 시퀀스 조회 X)
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
     @Column(name = "member_id")
     private Long id;
 
@@ -45,8 +53,22 @@ public class Member {
         }
     }
 
-    // 양방향 연관관계 편의 메서드
-    private void changeTeam(Team team) {
+    /**
+     * 벌크 적재용 생성
+     * 팀 프록시(em.getReference)만 연결하고 team.members 컬렉션은 건드리지 않음
+     * (편의 메서드를 쓰면 지연 컬렉션이 초기화되고 팀 하나에 회원이 계속 쌓임)
+     */
+    public static Member ofTeamReference(String username, int age, Team teamReference) {
+        Member member = new Member(username, age);
+        member.team = teamReference;
+        return member;
+    }
+
+    // 양방향 연관관계 편의 메서드 (팀 이동 시 이전 팀 컬렉션에서 제거)
+    public void changeTeam(Team team) {
+        if (this.team != null) {
+            this.team.getMembers().remove(this);
+        }
         this.team = team;
         team.getMembers().add(this);
     }
@@ -0,0 +1,54 @@
+package study.querydsll.entity;
+
+import study.querydsll.repository.DataVersion;
+import study.querydsll.repository.MemberCountCache;
+import study.querydsll.repository.MemberCountIndex;
+import study.querydsll.repository.MemberNearCache;
+import study.querydsll.repository.UsernameIndex;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 엔티티 쓰기 이벤트 리스너
+ * Spring Boot 가 Hibernate 에 SpringBeanContainer 를 등록하므로 생성자 주입 가능
+ * 벌크 연산(JPQL update / delete)은 리스너를 거치지 않으므로 레포지토리에서 직접 처리
+ */
+public class MemberEntityListener {
+
+    private final MemberCountCache countCache;
+    private final DataVersion dataVersion;
+    private final UsernameIndex usernameIndex;
+    private final MemberCountIndex countIndex;
+    private final MemberNearCache nearCache;
+
+    public MemberEntityListener(MemberCountCache countCache, DataVersion dataVersion,
+                                UsernameIndex usernameIndex, MemberCountIndex countIndex, MemberNearCache nearCache) {
+        this.countCache = countCache;
+        this.dataVersion = dataVersion;
+        this.usernameIndex = usernameIndex;
+        this.countIndex = countIndex;
+        this.nearCache = nearCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Member member) {
+        countCache.invalidateAll();
+        dataVersion.bump();
+        usernameIndex.onWrite(member.getId(), member.getUsername());
+        countIndex.onWrite(member.getId(), member.getTeam() != null ? member.getTeam().getId() : null,
+                member.getAge());
+        nearCache.invalidate(member.getId());
+    }
+
+    @PostRemove
+    public void onRemove(Member member) {
+        countCache.invalidateAll();
+        dataVersion.bump();
+        usernameIndex.onRemove(member.getId());
+        countIndex.onRemove(member.getId());
+        nearCache.invalidate(member.getId());
+    }
+}
@@ -0,0 +1,34 @@
+package study.querydsll.entity;
+
+import study.querydsll.repository.DataVersion;
+import study.querydsll.repository.MemberNearCache;
+import study.querydsll.repository.TeamDictionary;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Team 엔티티 쓰기 이벤트 리스너 (팀 사전 / 회원 near cache 무효화, 데이터 버전 증가)
+ */
+public class TeamEntityListener {
+
+    private final TeamDictionary teamDictionary;
+    private final DataVersion dataVersion;
+    private final MemberNearCache nearCache;
+
+    public TeamEntityListener(TeamDictionary teamDictionary, DataVersion dataVersion, MemberNearCache nearCache) {
+        this.teamDictionary = teamDictionary;
+        this.dataVersion = dataVersion;
+        this.nearCache = nearCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Team team) {
+        teamDictionary.invalidate();
+        dataVersion.bump();
+        nearCache.invalidateAll();
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsll.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 팀별 회원 통계 읽기 모델 (회원 수, 나이 합, 최소 / 최대 나이)
+ * Member 생성 / 팀 이동 / 삭제 시 같은 트랜잭션에서 갱신 (TeamStatsEventListener)
+ * 벌크 연산은 TeamStatsRepairJob 이 재계산
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    public double getAgeAvg() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+}
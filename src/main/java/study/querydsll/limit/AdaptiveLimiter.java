@@ -0,0 +1,195 @@
+package study.querydsll.limit;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 시간 기반 적응형 동시 실행 제한 (gradient 방식)
+ * - 짧은 구간 / 긴 구간 지연 시간 EWMA 비율(gradient)로 limit 조정
+ *   짧은 구간 지연이 평소(긴 구간)보다 커지면 limit 감소, 비슷하면 sqrt(limit) 만큼 증가
+ * - limit 초과 요청은 대기하되, 예상 대기 시간 + 예상 실행 시간이 SLO 를 넘으면 대기 없이 즉시 거절
+ */
+public class AdaptiveLimiter {
+
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_ALPHA = 2.0 / (500 + 1);
+    // 짧은 구간 지연이 긴 구간의 1.5배까지는 정상으로 간주
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final long sloNanos;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveLimiter(Duration slo, int initialLimit, int minLimit, int maxLimit) {
+        this.sloNanos = slo.toNanos();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 실행 허가 획득, 거절 시 null
+     * 반환된 Permit 은 작업 종료 후 반드시 release 해야 함 (실행 시간이 limit 조정에 사용됨)
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (waiting == 0 && inFlight < currentLimit()) {
+                return grant();
+            }
+
+            long budget = sloNanos - (long) shortRtt;
+            if (expectedWaitNanos(waiting + 1) > budget) {
+                return null;
+            }
+
+            waiting++;
+            try {
+                long remaining = budget;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                return grant();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 대기열이 빠지는 데 걸릴 예상 시간 (거절 시 Retry-After)
+    public Duration retryAfter() {
+        lock.lock();
+        try {
+            return Duration.ofNanos(Math.max(expectedWaitNanos(waiting + 1), (long) shortRtt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private long expectedWaitNanos(int position) {
+        return (long) (position * shortRtt / currentLimit());
+    }
+
+    private Permit grant() {
+        inFlight++;
+        return new Permit(inFlight);
+    }
+
+    private void release(long rttNanos, int inFlightAtStart, boolean sample) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (sample) {
+                update(rttNanos, inFlightAtStart);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            update(rttNanos, inFlightAtStart);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtStart) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_ALPHA;
+        longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+
+        // 부하가 빠져 지연이 크게 줄었으면 긴 구간 기준도 빠르게 따라 내려감
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // limit 의 절반도 쓰지 않는 상태에서는 지연 시간이 limit 과 무관하므로 증가시키지 않음
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        // SLO 를 넘기기 시작하면 그 비율만큼 추가로 감소
+        if (shortRtt > sloNanos) {
+            gradient = Math.max(0.5, Math.min(gradient, sloNanos / shortRtt));
+        }
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public class Permit {
+
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release() {
+            release(true);
+        }
+
+        // DB 를 거치지 않은 요청 (304 등) 은 지연 시간 표본에서 제외
+        public void releaseWithoutSample() {
+            release(false);
+        }
+
+        private void release(boolean sample) {
+            if (!released) {
+                released = true;
+                AdaptiveLimiter.this.release(System.nanoTime() - start, inFlightAtStart, sample);
+            }
+        }
+    }
+}
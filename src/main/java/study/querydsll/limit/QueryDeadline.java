@@ -0,0 +1,79 @@
+package study.querydsll.limit;
+
+import javax.persistence.Query;
+import javax.persistence.QueryTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 현재 요청 스레드의 deadline (System.nanoTime 기준)
+ * 쿼리 생성 시 남은 시간을 javax.persistence.query.timeout 힌트로 설정 -> JDBC Statement.setQueryTimeout
+ * deadline 이 지나면 DB 에서 쿼리가 취소되어 오래 걸리는 검색이 커넥션을 계속 점유하지 않음
+ * 이미 지났으면 쿼리를 실행하지 않고 QueryTimeoutException
+ *
+ * JDBC 쿼리 타임아웃은 초 단위이고 Hibernate 는 밀리초 힌트를 반올림하므로 (500ms 미만 -> 0 = 타임아웃 없음)
+ * 남은 시간을 초 단위로 올림하여 설정
+ */
+public final class QueryDeadline {
+
+    public static final String TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+    private static final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+    private QueryDeadline() {
+    }
+
+    public static void set(long deadlineNanos) {
+        deadline.set(deadlineNanos);
+    }
+
+    public static void clear() {
+        deadline.remove();
+    }
+
+    // deadline 이 없으면 null
+    public static Long current() {
+        return deadline.get();
+    }
+
+    // 다른 스레드(ConcurrentCountExecutor 등)에서 호출자의 deadline 으로 실행
+    public static <T> T callWith(Long deadlineNanos, Supplier<T> action) {
+        Long previous = deadline.get();
+        if (deadlineNanos == null) {
+            deadline.remove();
+        } else {
+            deadline.set(deadlineNanos);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                deadline.remove();
+            } else {
+                deadline.set(previous);
+            }
+        }
+    }
+
+    // 남은 시간 (밀리초, 초 단위 올림), deadline 이 없으면 null
+    public static Integer remainingTimeoutMillis() {
+        Long deadlineNanos = deadline.get();
+        if (deadlineNanos == null) {
+            return null;
+        }
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            throw new QueryTimeoutException("요청 deadline 이 지나 쿼리를 실행하지 않습니다.");
+        }
+        long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.min(Integer.MAX_VALUE, TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    public static <T extends Query> T apply(T query) {
+        Integer timeout = remainingTimeoutMillis();
+        if (timeout != null) {
+            query.setHint(TIMEOUT_HINT, timeout);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,17 @@
+package study.querydsll.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드의 요청 deadline (RequestDeadlineInterceptor)
+ * value 는 엔드포인트 이름, member.request-deadline.endpoints.{value} 로 시간 지정 (없으면 member.request-deadline.default)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestDeadline {
+
+    String value();
+}
@@ -0,0 +1,24 @@
+package study.querydsll.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 쿼리 타임아웃 (요청 deadline 초과로 취소된 쿼리) -> 504 Gateway Timeout
+ * 스프링 예외 변환 전(javax.persistence)과 후(org.springframework.dao) 모두 처리
+ */
+@Slf4j
+@RestControllerAdvice
+public class RequestDeadlineExceptionHandler {
+
+    @ExceptionHandler({org.springframework.dao.QueryTimeoutException.class, javax.persistence.QueryTimeoutException.class})
+    public ResponseEntity<Void> queryTimeout(HttpServletRequest request, RuntimeException e) {
+        log.debug("request deadline exceeded. {} {}", request.getMethod(), request.getRequestURI(), e);
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsll.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * @RequestDeadline 컨트롤러 메서드 실행 전 요청 deadline 설정, 요청 종료 시 해제 (QueryDeadline)
+ * - 엔드포인트별 시간 : member.request-deadline.endpoints.{이름}, 없으면 member.request-deadline.default
+ * - X-Request-Deadline 헤더로 요청마다 변경 가능 (ex. 800ms, 2s, 단위 없으면 밀리초), 최대 member.request-deadline.max
+ * 요청 처리 중 실행되는 쿼리는 남은 시간을 쿼리 타임아웃으로 사용
+ */
+@Slf4j
+@Component
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final String ENDPOINT_PROPERTY = "member.request-deadline.endpoints.";
+
+    private final Environment environment;
+    private final Duration defaultDeadline;
+    private final Duration maxDeadline;
+
+    public RequestDeadlineInterceptor(Environment environment,
+                                      @Value("${member.request-deadline.default:5s}") Duration defaultDeadline,
+                                      @Value("${member.request-deadline.max:30s}") Duration maxDeadline) {
+        this.environment = environment;
+        this.defaultDeadline = defaultDeadline;
+        this.maxDeadline = maxDeadline;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        RequestDeadline annotation = ((HandlerMethod) handler).getMethodAnnotation(RequestDeadline.class);
+        if (annotation == null) {
+            return true;
+        }
+        QueryDeadline.set(System.nanoTime() + deadlineOf(annotation.value(), request.getHeader(HEADER)).toNanos());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryDeadline.clear();
+    }
+
+    Duration deadlineOf(String endpoint, String header) {
+        Duration deadline = environment.getProperty(ENDPOINT_PROPERTY + endpoint, Duration.class, defaultDeadline);
+        if (hasText(header)) {
+            try {
+                Duration requested = DurationStyle.detectAndParse(header.trim(), ChronoUnit.MILLIS);
+                if (!requested.isNegative() && !requested.isZero()) {
+                    deadline = requested;
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("invalid {} header. value = {}", HEADER, header);
+            }
+        }
+        return deadline.compareTo(maxDeadline) > 0 ? maxDeadline : deadline;
+    }
+}
@@ -0,0 +1,22 @@
+package study.querydsll.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 메서드가 사용할 검색 벌크헤드 (SearchLoadSheddingInterceptor)
+ * 목록 조회와 카운트 쿼리가 붙는 페이징 조회는 지연 시간 특성이 달라 limit 을 따로 관리
+ * -> 느린 페이징 조회가 밀려도 빠른 목록 조회는 계속 처리됨
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SearchBulkhead {
+
+    Type value();
+
+    enum Type {
+        LIST, PAGED
+    }
+}
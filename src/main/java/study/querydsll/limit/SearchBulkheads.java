@@ -0,0 +1,53 @@
+package study.querydsll.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 검색 벌크헤드별 AdaptiveLimiter 및 메트릭
+ * - member.search.limit : 현재 동시 실행 limit
+ * - member.search.in-flight : 실행 중 요청 수
+ * - member.search.shed : 거절 횟수
+ */
+@Component
+public class SearchBulkheads {
+
+    private final Map<SearchBulkhead.Type, AdaptiveLimiter> limiters = new EnumMap<>(SearchBulkhead.Type.class);
+    private final Map<SearchBulkhead.Type, Counter> shed = new EnumMap<>(SearchBulkhead.Type.class);
+
+    public SearchBulkheads(MeterRegistry registry,
+                           @Value("${member.load-shedding.list.slo:200ms}") Duration listSlo,
+                           @Value("${member.load-shedding.paged.slo:500ms}") Duration pagedSlo,
+                           @Value("${member.load-shedding.initial-limit:4}") int initialLimit,
+                           @Value("${member.load-shedding.min-limit:1}") int minLimit,
+                           @Value("${member.load-shedding.max-limit:20}") int maxLimit) {
+        limiters.put(SearchBulkhead.Type.LIST, new AdaptiveLimiter(listSlo, initialLimit, minLimit, maxLimit));
+        limiters.put(SearchBulkhead.Type.PAGED, new AdaptiveLimiter(pagedSlo, initialLimit, minLimit, maxLimit));
+
+        limiters.forEach((type, limiter) -> {
+            String tag = type.name().toLowerCase();
+            Gauge.builder("member.search.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("bulkhead", tag)
+                    .register(registry);
+            Gauge.builder("member.search.in-flight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("bulkhead", tag)
+                    .register(registry);
+            shed.put(type, registry.counter("member.search.shed", "bulkhead", tag));
+        });
+    }
+
+    public AdaptiveLimiter limiter(SearchBulkhead.Type type) {
+        return limiters.get(type);
+    }
+
+    public void recordShed(SearchBulkhead.Type type) {
+        shed.get(type).increment();
+    }
+}
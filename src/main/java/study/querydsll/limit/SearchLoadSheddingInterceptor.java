@@ -0,0 +1,68 @@
+package study.querydsll.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @SearchBulkhead 컨트롤러 메서드 실행 전 동시 실행 허가 획득, 요청 종료 시 반납
+ * 허가를 얻지 못하면 (SLO 안에 처리할 수 없으면) 커넥션 풀에서 기다리게 하지 않고 즉시 503 + Retry-After 응답
+ * 조건부 GET 의 ETag 비교는 검색 조건 바인딩 후 컨트롤러에서 하므로 304 응답도 허가를 하나 사용함
+ * (허가 보유 시간은 짧고, 304 는 지연 시간 표본에서 제외하여 한도 조정에 영향 없음)
+ */
+@Slf4j
+@Component
+public class SearchLoadSheddingInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = SearchLoadSheddingInterceptor.class.getName() + ".PERMIT";
+
+    private final SearchBulkheads bulkheads;
+
+    public SearchLoadSheddingInterceptor(SearchBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        SearchBulkhead bulkhead = ((HandlerMethod) handler).getMethodAnnotation(SearchBulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+
+        AdaptiveLimiter limiter = bulkheads.limiter(bulkhead.value());
+        AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            bulkheads.recordShed(bulkhead.value());
+            long retryAfterSeconds = Math.max(1, (long) Math.ceil(limiter.retryAfter().toMillis() / 1000.0));
+            log.debug("search request shed. {} {} bulkhead = {}, limit = {}",
+                    request.getMethod(), request.getRequestURI(), bulkhead.value(), limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return false;
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveLimiter.Permit permit = (AdaptiveLimiter.Permit) request.getAttribute(PERMIT);
+        if (permit != null) {
+            request.removeAttribute(PERMIT);
+            if (response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+                permit.releaseWithoutSample();
+            } else {
+                permit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package study.querydsll.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 트랜잭션 종료 후 작업 등록 (key 별로 트랜잭션당 동기화 객체 하나만 등록하여 다건 쓰기 시 누적 방지)
+ * key 로 바인딩한 리소스는 트랜잭션이 일시 중단(REQUIRES_NEW 등)되면 함께 해제하고 재개 시 다시 바인딩
+ * -> 내부 트랜잭션의 변경이 외부 트랜잭션에 섞이지 않고 내부 트랜잭션 종료 시점에 따로 처리됨
+ */
+final class AfterTransactionCompletion {
+
+    private AfterTransactionCompletion() {
+    }
+
+    /**
+     * 현재 트랜잭션 종료(커밋 / 롤백) 후 한번 실행, 트랜잭션 밖이면 아무것도 하지 않음
+     */
+    static void runOnce(Object key, Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(key)) {
+            TransactionSynchronizationManager.bindResource(key, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new ResourceSynchronization(key, Boolean.TRUE) {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * 변경을 트랜잭션별로 모아 커밋된 경우에만 순서대로 적용 (롤백 시 버림), 트랜잭션 밖이면 즉시 적용
+     */
+    @SuppressWarnings("unchecked")
+    static <T> void onCommit(Object key, T change, Consumer<T> apply) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.accept(change);
+            return;
+        }
+        List<T> pending = (List<T>) TransactionSynchronizationManager.getResource(key);
+        if (pending == null) {
+            List<T> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(key, changes);
+            TransactionSynchronizationManager.registerSynchronization(new ResourceSynchronization(key, changes) {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                    if (status == STATUS_COMMITTED) {
+                        changes.forEach(apply);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    // 현재 트랜잭션에 아직 커밋되지 않은 onCommit 변경이 있는지
+    static boolean hasPending(Object key) {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(key) instanceof List;
+    }
+
+    // 일시 중단 / 재개 시 key 리소스 해제 / 재바인딩 (스프링의 ResourceHolderSynchronization 과 같은 방식)
+    private abstract static class ResourceSynchronization implements TransactionSynchronization {
+
+        private final Object key;
+        private final Object resource;
+
+        private ResourceSynchronization(Object key, Object resource) {
+            this.key = key;
+            this.resource = resource;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(key, resource);
+        }
+    }
+}
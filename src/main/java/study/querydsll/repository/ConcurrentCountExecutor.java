@@ -0,0 +1,200 @@
+package study.querydsll.repository;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.limit.QueryDeadline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.QueryTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 카운트 쿼리 동시 실행기
+ * 조회 쿼리와 카운트 쿼리를 같은 스레드/커넥션에서 순차 실행하는 대신
+ * 카운트 쿼리를 크기가 제한된 스레드풀에서 별도의 읽기 전용 트랜잭션(커넥션)으로 먼저 시작
+ * 조회 결과로 카운트가 필요 없다고 판단되면 (PageableExecutionUtils 생략 조건) 실행 중인 카운트 쿼리 취소
+ * 풀이 가득 차면 null 을 반환하며 호출자는 기존처럼 순차 실행
+ * 호출 스레드의 요청 deadline (QueryDeadline) 을 카운트 스레드에서도 그대로 사용
+ *
+ * 호출 스레드는 이미 커넥션을 하나 점유한 채 카운트(두번째 커넥션)를 기다리므로
+ * 커넥션 풀 / 스레드풀이 부족하면 서로 기다리며 멈출 수 있음 -> 카운트 시작(세션 획득)까지만 최대 wait-timeout 대기
+ * 시간 안에 시작하지 못하면 취소하고 null -> 호출자가 자기 커넥션에서 순차 실행
+ * 이미 시작한 카운트는 다시 실행하지 않고 결과를 기다림 (요청 deadline 이 상한, 지나면 취소 후 QueryTimeoutException)
+ */
+@Component
+public class ConcurrentCountExecutor implements DisposableBean {
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final boolean enabled;
+    private final long waitTimeoutNanos;
+
+    public ConcurrentCountExecutor(EntityManager em,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${member.concurrent-count.enabled:false}") boolean enabled,
+                                   @Value("${member.concurrent-count.threads:4}") int threads,
+                                   @Value("${member.concurrent-count.queue-size:64}") int queueSize,
+                                   @Value("${member.concurrent-count.wait-timeout:200ms}") Duration waitTimeout) {
+        this.em = em;
+        this.enabled = enabled;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "count-query-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 쓰기 트랜잭션 안에서는 아직 커밋되지 않은 변경을 다른 커넥션이 볼 수 없으므로 사용하지 않음
+     */
+    public boolean isAvailable() {
+        return enabled && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    public PendingCount submit(LongSupplier countQuery) {
+        PendingCount pending = new PendingCount(waitTimeoutNanos);
+        Long deadline = QueryDeadline.current();
+        try {
+            executor.execute(() -> {
+                if (pending.future.isDone()) {
+                    return;
+                }
+                try {
+                    Long count = QueryDeadline.callWith(deadline, () -> readOnlyTransaction.execute(status -> {
+                        // 세션 등록과 취소 여부 확인을 cancel() 과 같은 락에서 처리
+                        // -> 등록 전에 취소되었으면 실행하지 않고, 등록 후 취소되면 cancel() 이 세션의 쿼리를 취소
+                        if (!pending.start(em.unwrap(Session.class))) {
+                            return null;
+                        }
+                        try {
+                            return countQuery.getAsLong();
+                        } finally {
+                            pending.finish();
+                        }
+                    }));
+                    if (count != null) {
+                        pending.future.complete(count);
+                    }
+                } catch (RuntimeException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return pending;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public static class PendingCount {
+
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        // 카운트 시작 또는 완료(시작 전 실패 포함) 시 해제
+        private final CountDownLatch startedOrDone = new CountDownLatch(1);
+        private final long waitTimeoutNanos;
+        private Session session;
+        private boolean started;
+
+        private PendingCount(long waitTimeoutNanos) {
+            this.waitTimeoutNanos = waitTimeoutNanos;
+            future.whenComplete((count, e) -> startedOrDone.countDown());
+        }
+
+        /**
+         * wait-timeout 안에 시작하지 못하면 취소 후 null (호출자가 순차 실행)
+         * 시작했으면 결과를 기다림, 호출 스레드의 요청 deadline 이 지나면 취소 후 QueryTimeoutException
+         */
+        public Long join() {
+            try {
+                if (!startedOrDone.await(waitTimeoutNanos, TimeUnit.NANOSECONDS) && cancelIfNotStarted()) {
+                    return null;
+                }
+                Long deadline = QueryDeadline.current();
+                if (deadline == null) {
+                    return future.get();
+                }
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel();
+                throw new QueryTimeoutException("요청 deadline 이 지나 카운트 쿼리를 취소했습니다.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("카운트 쿼리 대기 중 인터럽트가 발생했습니다.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (CancellationException e) {
+                throw new IllegalStateException("이미 취소된 카운트 쿼리입니다.", e);
+            }
+        }
+
+        // 아직 시작 전이면 실행하지 않고, 실행 중이면 JDBC Statement.cancel 로 쿼리 취소 (완료 후에는 아무 동작 안함)
+        // 세션은 트랜잭션(EntityManager) 종료 전에 해제되므로 락 안에서는 열린 세션에만 cancelQuery 호출
+        // 세션 등록 직후 JDBC 문장 실행 전에 취소되면 cancelQuery 가 대상을 찾지 못할 수 있으며, 이 경우 요청 deadline 의 쿼리 타임아웃이 상한
+        public synchronized void cancel() {
+            if (!future.cancel(false)) {
+                return;
+            }
+            if (session != null) {
+                try {
+                    session.cancelQuery();
+                } catch (HibernateException ignored) {
+                    // 쿼리가 이미 끝난 경우
+                }
+            }
+        }
+
+        private synchronized boolean start(Session session) {
+            if (future.isDone()) {
+                return false;
+            }
+            this.session = session;
+            this.started = true;
+            startedOrDone.countDown();
+            return true;
+        }
+
+        private synchronized boolean cancelIfNotStarted() {
+            return !started && future.cancel(false);
+        }
+
+        private synchronized void finish() {
+            session = null;
+        }
+    }
+}
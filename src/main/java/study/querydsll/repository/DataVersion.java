@@ -0,0 +1,56 @@
+package study.querydsll.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * member / team 테이블 데이터 버전 (단조 증가)
+ * 엔티티 리스너와 벌크 연산에서 증가시키고, 조회 API 의 ETag 계산에 사용
+ * 커밋 전 증가만 하면 그 사이 옛 데이터를 새 버전으로 태깅할 수 있으므로 트랜잭션 종료 후 한번 더 증가
+ * 인스턴스 로컬 카운터이므로 다중 인스턴스 배포 시에는 공유 저장소로 옮겨야 함
+ * 카운터는 재시작하면 0 부터 다시 증가하므로 ETag 에 기동별 epoch(무작위 id)를 포함
+ * -> 재시작 전에 받은 태그가 같은 버전 값에 다시 일치하지 않음
+ */
+@Component
+public class DataVersion {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+        AfterTransactionCompletion.runOnce(this, version::incrementAndGet);
+    }
+
+    /**
+     * 현재 버전 + 정규화한 검색 조건 + 페이지 정보로 weak ETag 생성
+     * 조회 쿼리 실행 전에 호출해야 함 (쿼리 도중 변경되면 다음 요청에서 새 태그가 나가도록)
+     */
+    public String memberSearchETag(String endpoint, MemberSearchCond condition, Pageable pageable) {
+        int hash = Objects.hash(endpoint,
+                normalize(condition.getUsername()),
+                hasText(condition.getUsername()) ? condition.getUsernameMatch() : null,
+                normalize(condition.getTeamName()),
+                condition.getAgeGoe(),
+                condition.getAgeLoe(),
+                pageable == null ? null : pageable.getPageNumber(),
+                pageable == null ? null : pageable.getPageSize(),
+                pageable == null ? null : pageable.getSort().toString());
+        return "W/\"" + epoch + "-" + current() + "-" + Integer.toHexString(hash) + "\"";
+    }
+
+    private static String normalize(String value) {
+        return hasText(value) ? value : null;
+    }
+}
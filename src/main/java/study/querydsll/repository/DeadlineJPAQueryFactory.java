@@ -0,0 +1,40 @@
+package study.querydsll.repository;
+
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import study.querydsll.limit.QueryDeadline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * 요청 deadline (QueryDeadline) 을 쿼리 타임아웃 힌트로 설정하는 JPAQueryFactory
+ * select / selectFrom / from 으로 만든 모든 JPAQuery 가 실행 시점(fetch / fetchOne / fetchCount 등)의 남은 시간을 힌트로 사용
+ */
+class DeadlineJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+
+    DeadlineJPAQueryFactory(EntityManager em) {
+        super(em);
+        this.em = em;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new DeadlineJPAQuery<Void>(em);
+    }
+
+    private static class DeadlineJPAQuery<T> extends JPAQuery<T> {
+
+        private DeadlineJPAQuery(EntityManager em) {
+            super(em);
+        }
+
+        @Override
+        protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+            return QueryDeadline.apply(super.createQuery(modifiers, forCount));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package study.querydsll.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * IN 절 파라미터 분할 / 패딩
+ * 키 목록을 maxChunkSize 단위로 나누고 각 청크를 2의 거듭제곱 크기로 맞춤 (마지막 키 반복)
+ * -> 파라미터 수가 1, 2, 4, ... maxChunkSize 중 하나이므로 JPQL -> SQL 변환 캐시 / DB 실행 계획 캐시 항목 수가 제한됨
+ */
+final class InClauseChunks {
+
+    private InClauseChunks() {
+    }
+
+    // null 제거 + 중복 제거 (첫 등장 순서 유지)
+    static <T> List<T> distinct(Collection<T> keys) {
+        LinkedHashSet<T> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        return new ArrayList<>(distinct);
+    }
+
+    static <T> List<List<T>> of(List<T> keys, int maxChunkSize) {
+        if (Integer.bitCount(maxChunkSize) != 1) {
+            throw new IllegalArgumentException("maxChunkSize 는 2의 거듭제곱이어야 합니다. maxChunkSize = " + maxChunkSize);
+        }
+        List<List<T>> chunks = new ArrayList<>((keys.size() + maxChunkSize - 1) / maxChunkSize);
+        for (int from = 0; from < keys.size(); from += maxChunkSize) {
+            chunks.add(padded(keys.subList(from, Math.min(from + maxChunkSize, keys.size()))));
+        }
+        return chunks;
+    }
+
+    // 분할 없이 2의 거듭제곱 크기로만 맞춤 (크기 상한이 정해진 목록을 IN 절 하나로 바인딩할 때)
+    static <T> List<T> padded(List<T> keys) {
+        List<T> padded = new ArrayList<>(paddedSize(keys.size()));
+        padded.addAll(keys);
+        if (keys.isEmpty()) {
+            return padded;
+        }
+        T last = Objects.requireNonNull(keys.get(keys.size() - 1));
+        while (padded.size() < paddedSize(keys.size())) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    static int paddedSize(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -0,0 +1,148 @@
+package study.querydsll.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건별 전체 카운트 캐시
+ * 정규화된 MemberSearchCond (username, teamName, ageGoe, ageLoe) 를 키로 사용
+ * 최대 크기 초과 시 LRU 제거, TTL 경과 시 만료
+ * 쓰기 발생 시 invalidateAll() 로 전체 무효화 (트랜잭션 중이면 커밋 이후 한번 더 무효화)
+ */
+@Component
+public class MemberCountCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // 무효화 세대. 카운트 조회 도중 무효화가 일어나면 조회 결과를 캐시하지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<Key, Entry> entries;
+
+    public MemberCountCache(@Value("${member.count-cache.max-size:1000}") int maxSize,
+                            @Value("${member.count-cache.ttl:30s}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > MemberCountCache.this.maxSize;
+            }
+        };
+    }
+
+    public long get(MemberSearchCond condition, LongSupplier countQuery) {
+        Key key = Key.of(condition);
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                return entry.count;
+            }
+        }
+
+        long startGeneration = generation.get();
+        long count = countQuery.getAsLong();
+
+        synchronized (entries) {
+            if (generation.get() == startGeneration) {
+                entries.put(key, new Entry(count, now + ttlNanos));
+            }
+        }
+        return count;
+    }
+
+    // 캐시된 카운트만 조회 (없거나 만료되면 null, 카운트 쿼리 실행 안 함)
+    public Long peek(MemberSearchCond condition) {
+        Key key = Key.of(condition);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.expiresAt - System.nanoTime() > 0 ? entry.count : null;
+        }
+    }
+
+    public void invalidateAll() {
+        clear();
+        AfterTransactionCompletion.runOnce(this, this::clear);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private static class Entry {
+
+        private final long count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // 정규화된 검색 조건 키 (공백 문자열은 조건 없음과 동일하게 취급)
+    private static class Key {
+
+        private final String username;
+        private final String teamName;
+        private final Integer ageGoe;
+        private final Integer ageLoe;
+        private final MemberSearchCond.UsernameMatch usernameMatch;
+
+        private Key(String username, String teamName, Integer ageGoe, Integer ageLoe, MemberSearchCond.UsernameMatch usernameMatch) {
+            this.username = username;
+            this.teamName = teamName;
+            this.ageGoe = ageGoe;
+            this.ageLoe = ageLoe;
+            this.usernameMatch = usernameMatch;
+        }
+
+        private static Key of(MemberSearchCond condition) {
+            return new Key(
+                    hasText(condition.getUsername()) ? condition.getUsername() : null,
+                    hasText(condition.getTeamName()) ? condition.getTeamName() : null,
+                    condition.getAgeGoe(),
+                    condition.getAgeLoe(),
+                    hasText(condition.getUsername()) ? condition.getUsernameMatch() : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(username, key.username)
+                    && Objects.equals(teamName, key.teamName)
+                    && Objects.equals(ageGoe, key.ageGoe)
+                    && Objects.equals(ageLoe, key.ageLoe)
+                    && usernameMatch == key.usernameMatch;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, teamName, ageGoe, ageLoe, usernameMatch);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsll.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.entity.TeamStats;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsll.entity.QTeamStats.teamStats;
+
+/**
+ * 팀 통계(TeamStats) 기반 검색 결과 수 추정
+ * 팀별 회원 수에 [minAge, maxAge] 중 나이 조건과 겹치는 비율을 곱해 합산 (팀 안에서 나이가 균등 분포라고 가정)
+ * member 테이블을 읽지 않고 작은 team_stats 테이블 한번만 조회
+ * username 조건은 통계가 없으므로 추정하지 않음 (null)
+ * 팀 통계 행이 없으면 (재계산 전 등) 0 으로 추정하지 않고 null -> 호출자는 CAPPED 카운트
+ * 팀은 생성 시 통계 행이 함께 생기므로 조건의 팀 중 행이 없는 팀이 있어도 아직 반영 전으로 보고 null
+ */
+@Component
+public class MemberCountEstimator {
+
+    private final JPAQueryFactory queryFactory;
+    private final TeamDictionary teamDictionary;
+
+    public MemberCountEstimator(EntityManager em, TeamDictionary teamDictionary) {
+        this.queryFactory = new DeadlineJPAQueryFactory(em);
+        this.teamDictionary = teamDictionary;
+    }
+
+    public Long estimate(MemberSearchCond condition) {
+        if (hasText(condition.getUsername())) {
+            return null;
+        }
+
+        List<TeamStats> stats;
+        if (hasText(condition.getTeamName())) {
+            List<Long> teamIds = teamDictionary.idsOf(condition.getTeamName());
+            if (teamIds.isEmpty()) {
+                return 0L;
+            }
+            stats = queryFactory.selectFrom(teamStats).where(teamStats.teamId.in(teamIds)).fetch();
+            if (stats.size() < teamIds.size()) {
+                return null;
+            }
+        } else {
+            stats = queryFactory.selectFrom(teamStats).fetch();
+        }
+        if (stats.isEmpty()) {
+            return null;
+        }
+
+        double estimate = 0;
+        for (TeamStats stat : stats) {
+            estimate += stat.getMemberCount() * ageFraction(stat, condition.getAgeGoe(), condition.getAgeLoe());
+        }
+        return Math.round(estimate);
+    }
+
+    // 팀의 나이 범위 중 [ageGoe, ageLoe] 에 포함되는 비율 (정수 나이 기준)
+    static double ageFraction(TeamStats stat, Integer ageGoe, Integer ageLoe) {
+        if (stat.getMemberCount() == 0 || stat.getMinAge() == null || stat.getMaxAge() == null) {
+            return 0;
+        }
+        long min = stat.getMinAge();
+        long max = stat.getMaxAge();
+        long from = ageGoe != null ? Math.max(min, ageGoe) : min;
+        long to = ageLoe != null ? Math.min(max, ageLoe) : max;
+        if (from > to) {
+            return 0;
+        }
+        return (double) (to - from + 1) / (max - min + 1);
+    }
+}
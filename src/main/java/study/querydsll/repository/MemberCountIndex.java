@@ -0,0 +1,338 @@
+package study.querydsll.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 카운트용 인메모리 비트맵 인덱스 (RoaringBitmap, member id 기준)
+ * 팀별 / 나이별 / 팀 있음 비트맵만 유지하고 MemberSearchCond 카운트를 비트맵 AND / OR cardinality 로 계산
+ * 나이는 값 범위가 작으므로 나이 값 하나를 버킷 하나로 두고 범위 조건은 해당 버킷 OR
+ * username 등 회원 값은 힙에 두지 않고, 변경 / 삭제 시 이전 버킷을 찾기 위한 현재 팀 슬롯 / 나이만 id 를 인덱스로 하는 int 배열로 보관
+ * (id 는 시퀀스로 채번되므로 회원당 8 byte) -> 변경 시 이전 팀 / 나이 비트맵 두 개에서만 제거
+ *
+ * 커밋된 데이터만 반영 (엔티티 쓰기 이벤트는 커밋 후 적용, 벌크 연산은 markStale() 후 재구성)
+ * 다음 경우 null 을 반환하며 호출자는 SQL 카운트로 대체
+ * - 재구성 중 / 재구성 대기 중
+ * - 쓰기 트랜잭션 안 (flush 전 변경을 포함한 자신의 변경이 카운트에 보여야 하므로)
+ * - username 조건 (SQL 카운트)
+ * member id 는 int 범위로 저장하며 범위를 넘는 id 가 생기면 인덱스 사용 중지
+ * member.count-index.enabled=false 이면 적재 / 유지하지 않고 항상 SQL 카운트 (벤치마크 등)
+ */
+@Slf4j
+@Component
+public class MemberCountIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TeamDictionary teamDictionary;
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object committedChanges = new Object();
+    private Bitmaps bitmaps = new Bitmaps();
+    private List<Change> journal;
+    private volatile boolean ready;
+
+    public MemberCountIndex(JdbcTemplate jdbcTemplate, TeamDictionary teamDictionary,
+                            @Value("${member.count-index.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.teamDictionary = teamDictionary;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 검색 조건 카운트, 인덱스를 사용할 수 없으면 null
+     * MemberSearchTemplates 카운트와 같은 의미 (팀이 있는 회원만 대상)
+     */
+    public Long count(MemberSearchCond condition) {
+        if (!enabled || !ready || hasText(condition.getUsername()) || isWriteTransaction()
+                || AfterTransactionCompletion.hasPending(committedChanges)) {
+            return null;
+        }
+
+        List<Long> teamIds = hasText(condition.getTeamName()) ? teamDictionary.idsOf(condition.getTeamName()) : null;
+        if (teamIds != null && teamIds.isEmpty()) {
+            return 0L;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            List<RoaringBitmap> filters = new ArrayList<>(2);
+            filters.add(teamIds == null ? bitmaps.withTeam : bitmaps.ofTeams(teamIds));
+            if (condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+                filters.add(bitmaps.ofAgeRange(condition.getAgeGoe(), condition.getAgeLoe()));
+            }
+            return andCardinality(filters);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== 유지 ========== //
+    public void onWrite(Long memberId, Long teamId, int age) {
+        if (!enabled) {
+            return;
+        }
+        AfterTransactionCompletion.onCommit(committedChanges, new Change(memberId, teamId, age, false), this::apply);
+    }
+
+    public void onRemove(Long memberId) {
+        if (!enabled) {
+            return;
+        }
+        AfterTransactionCompletion.onCommit(committedChanges, new Change(memberId, null, 0, true), this::apply);
+    }
+
+    /**
+     * 벌크 연산 등으로 인덱스가 실제 데이터와 달라짐 -> 재구성 전까지 사용 중지
+     * 커밋 전 시작된 재구성이 이전 데이터로 완료되지 않도록 트랜잭션 종료 후 한번 더 표시
+     */
+    public void markStale() {
+        stale();
+        AfterTransactionCompletion.runOnce(this, this::stale);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${member.count-index.rebuild-interval:PT10S}")
+    public void rebuildIfStale() {
+        if (enabled && !ready) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long startGeneration = generation.get();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps loaded = new Bitmaps();
+        boolean[] overflow = new boolean[1];
+        long[] members = new long[1];
+        try {
+            jdbcTemplate.query("select member_id, team_id, age from member", rs -> {
+                long id = rs.getLong(1);
+                if (id > Integer.MAX_VALUE) {
+                    overflow[0] = true;
+                    return;
+                }
+                long teamId = rs.getLong(2);
+                Long team = rs.wasNull() ? null : teamId;
+                loaded.add((int) id, team, rs.getInt(3));
+                members[0]++;
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            bitmaps = loaded;
+            journal.forEach(change -> change.applyTo(loaded));
+            journal = null;
+            ready = !overflow[0] && generation.get() == startGeneration;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (overflow[0]) {
+            log.warn("member id exceeds int range. member count index disabled");
+        }
+        log.info("member count index rebuilt. members = {}, teams = {}", members[0], loaded.byTeam.size());
+    }
+
+    // 쓰기 트랜잭션 (읽기 전용 트랜잭션에서는 flush 되지 않으므로 SQL 도 커밋된 데이터만 봄)
+    private static boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void stale() {
+        generation.incrementAndGet();
+        ready = false;
+    }
+
+    private void apply(Change change) {
+        if (change.memberId > Integer.MAX_VALUE) {
+            stale();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            change.applyTo(bitmaps);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 작은 비트맵부터 AND
+    private static long andCardinality(List<RoaringBitmap> filters) {
+        if (filters.size() == 1) {
+            return filters.get(0).getLongCardinality();
+        }
+        filters.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+        RoaringBitmap result = filters.get(0);
+        for (int i = 1; i < filters.size() - 1; i++) {
+            result = RoaringBitmap.and(result, filters.get(i));
+        }
+        return RoaringBitmap.andCardinality(result, filters.get(filters.size() - 1));
+    }
+
+    private static class Bitmaps {
+
+        // teamSlotOf 값 (그 외는 teamIds 인덱스 + FIRST_TEAM_SLOT)
+        private static final int ABSENT = 0;
+        private static final int NO_TEAM = 1;
+        private static final int FIRST_TEAM_SLOT = 2;
+
+        private final Map<Long, RoaringBitmap> byTeam = new HashMap<>();
+        private final NavigableMap<Integer, RoaringBitmap> byAge = new TreeMap<>();
+        private final RoaringBitmap withTeam = new RoaringBitmap();
+
+        // member id -> 현재 팀 슬롯 / 나이
+        private final List<Long> teamIds = new ArrayList<>();
+        private final Map<Long, Integer> teamSlots = new HashMap<>();
+        private int[] teamSlotOf = new int[0];
+        private int[] ageOf = new int[0];
+
+        private void add(int id, Long teamId, int age) {
+            ensureCapacity(id);
+            if (teamId != null) {
+                withTeam.add(id);
+                byTeam.computeIfAbsent(teamId, key -> new RoaringBitmap()).add(id);
+                teamSlotOf[id] = teamSlot(teamId);
+            } else {
+                teamSlotOf[id] = NO_TEAM;
+            }
+            byAge.computeIfAbsent(age, key -> new RoaringBitmap()).add(id);
+            ageOf[id] = age;
+        }
+
+        // 현재 팀 / 나이 버킷에서만 제거
+        private void remove(int id) {
+            if (id >= teamSlotOf.length || teamSlotOf[id] == ABSENT) {
+                return;
+            }
+            int slot = teamSlotOf[id];
+            if (slot != NO_TEAM) {
+                withTeam.remove(id);
+                removeFrom(byTeam, teamIds.get(slot - FIRST_TEAM_SLOT), id);
+            }
+            removeFrom(byAge, ageOf[id], id);
+            teamSlotOf[id] = ABSENT;
+        }
+
+        private int teamSlot(Long teamId) {
+            return teamSlots.computeIfAbsent(teamId, key -> {
+                teamIds.add(key);
+                return teamIds.size() - 1 + FIRST_TEAM_SLOT;
+            });
+        }
+
+        private void ensureCapacity(int id) {
+            if (id < teamSlotOf.length) {
+                return;
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(id + 1L, teamSlotOf.length * 3L / 2));
+            teamSlotOf = Arrays.copyOf(teamSlotOf, capacity);
+            ageOf = Arrays.copyOf(ageOf, capacity);
+        }
+
+        private RoaringBitmap ofTeams(List<Long> teamIds) {
+            List<RoaringBitmap> teams = new ArrayList<>(teamIds.size());
+            for (Long teamId : teamIds) {
+                RoaringBitmap team = byTeam.get(teamId);
+                if (team != null) {
+                    teams.add(team);
+                }
+            }
+            return teams.isEmpty() ? EMPTY : FastAggregation.or(teams.iterator());
+        }
+
+        private RoaringBitmap ofAgeRange(Integer ageGoe, Integer ageLoe) {
+            int from = ageGoe != null ? ageGoe : Integer.MIN_VALUE;
+            int to = ageLoe != null ? ageLoe : Integer.MAX_VALUE;
+            if (from > to) {
+                return EMPTY;
+            }
+            return FastAggregation.or(byAge.subMap(from, true, to, true).values().iterator());
+        }
+
+        private static <K> void removeFrom(Map<K, RoaringBitmap> map, K key, int id) {
+            RoaringBitmap bitmap = map.get(key);
+            if (bitmap != null && bitmap.checkedRemove(id) && bitmap.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private static class Change {
+
+        private final long memberId;
+        private final Long teamId;
+        private final int age;
+        private final boolean removed;
+
+        private Change(long memberId, Long teamId, int age, boolean removed) {
+            this.memberId = memberId;
+            this.teamId = teamId;
+            this.age = age;
+            this.removed = removed;
+        }
+
+        private void applyTo(Bitmaps bitmaps) {
+            bitmaps.remove((int) memberId);
+            if (!removed) {
+                bitmaps.add((int) memberId, teamId, age);
+            }
+        }
+    }
+}
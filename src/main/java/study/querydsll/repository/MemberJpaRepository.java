@@ -2,15 +2,32 @@ package study.querydsll.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.dto.BulkChunkResult;
+import study.querydsll.dto.BulkOperationResult;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
 import study.querydsll.dto.QMemberTeamDto;
 import study.querydsll.entity.Member;
+import study.querydsll.stats.TeamStatsRepairJob;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsll.entity.QMember.member;
@@ -24,14 +41,43 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache countCache;
+    private final MemberSearchTemplates searchTemplates;
+    private final TransactionTemplate chunkTransaction;
+    private final TeamStatsRepairJob teamStatsRepairJob;
+    private final MemberQueryMetrics queryMetrics;
+    private final DataVersion dataVersion;
+    private final UsernameIndex usernameIndex;
+    private final MemberCountIndex countIndex;
+    private final MemberNearCache nearCache;
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em,
+                               MemberCountCache countCache,
+                               MemberSearchTemplates searchTemplates,
+                               PlatformTransactionManager transactionManager,
+                               TeamStatsRepairJob teamStatsRepairJob,
+                               MemberQueryMetrics queryMetrics,
+                               DataVersion dataVersion,
+                               UsernameIndex usernameIndex,
+                               MemberCountIndex countIndex,
+                               MemberNearCache nearCache) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = new DeadlineJPAQueryFactory(em);
+        this.countCache = countCache;
+        this.searchTemplates = searchTemplates;
+        this.teamStatsRepairJob = teamStatsRepairJob;
+        this.queryMetrics = queryMetrics;
+        this.dataVersion = dataVersion;
+        this.usernameIndex = usernameIndex;
+        this.countIndex = countIndex;
+        this.nearCache = nearCache;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     public void save(Member member) {
         em.persist(member);
+        countCache.invalidateAll();
     }
 
     public Optional<Member> findById(Long id) {
@@ -39,6 +85,20 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member);
     }
 
+    /**
+     * 회원 + 팀 읽기 전용 스냅샷 조회 (MemberNearCache)
+     * findById 는 영속 엔티티(동일성 / 변경 감지)를 반환해야 하므로 캐시하지 않고, 읽기 전용 조회는 이 메서드 사용
+     */
+    @Transactional(readOnly = true)
+    public Optional<MemberTeamDto> findSnapshotById(Long id) {
+        return Optional.ofNullable(nearCache.get(id, () -> queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.eq(id))
+                .fetchOne()));
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
@@ -57,19 +117,20 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsername_QueryDsl(String username) {
-        return queryFactory
+        return queryMetrics.list("MemberJpaRepository.findByUsername_QueryDsl", "username", () -> queryFactory
                 .selectFrom(member)
                 .where(member.username.eq(username))
-                .fetch();
+                .fetch());
     }
 
     // ========== Member Search (MemberSearchCond) ========== //
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByBuilder(MemberSearchCond condition) {
 
         BooleanBuilder builder = new BooleanBuilder();
 
         if (hasText(condition.getUsername())) {
-            builder.and(member.username.eq(condition.getUsername()));
+            builder.and(usernameIndex.usernameMatches(condition.getUsername(), condition.getUsernameMatch()));
         }
         if (hasText(condition.getTeamName())) {
             builder.and(team.name.eq(condition.getTeamName()));
@@ -81,33 +142,200 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(condition.getAgeLoe()));
         }
 
-        return queryFactory
+        return queryMetrics.list("MemberJpaRepository.searchByBuilder", condition, () -> queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
                 .from(member)
                 .join(member.team, team)
                 .where(builder)
-                .fetch();
+                .fetch());
     }
 
+    /**
+     * memberSearchEq 와 동일한 조건을 검색 조건 형태별 사전 컴파일 템플릿으로 실행
+     */
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCond condition) {
+        return queryMetrics.list("MemberJpaRepository.search", condition, () -> searchTemplates.fetch(em, condition));
+    }
+
+    /**
+     * 스트리밍 조회
+     * fetch() 처럼 전체 결과를 List 로 올리지 않고 forward-only 커서로 한 행씩 읽음
+     * DTO 프로젝션이므로 영속성 컨텍스트에 엔티티가 쌓이지 않음
+     * 반환된 Stream 은 트랜잭션 안에서 소비 후 반드시 close 해야 함
+     */
+    public Stream<MemberTeamDto> searchStream(MemberSearchCond condition, int fetchSize) {
         return queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
                 .from(member)
                 .join(member.team, team)
                 .where(memberSearchEq(condition))
-                .fetch();
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream();
+    }
+
+    // ========== Bulk ========== //
+    /**
+     * 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않으므로
+     * 실행 전 flush, 실행 후 clear 및 카운트 캐시 무효화, 팀 통계 재계산 예약
+     */
+    public long bulkUpdateUsername(String username, int ageGt) {
+        em.flush();
+        long count = queryFactory
+                .update(member)
+                .set(member.username, username)
+                .where(member.age.gt(ageGt))
+                .execute();
+        afterBulk();
+        usernameIndex.markStale();
+        return count;
+    }
+
+    public long bulkAddAge(int amount, int ageGt) {
+        em.flush();
+        long count = queryFactory
+                .update(member)
+                .set(member.age, member.age.add(amount))
+                .where(member.age.gt(ageGt))
+                .execute();
+        afterBulk();
+        return count;
+    }
+
+    public long bulkDelete(int ageGt) {
+        em.flush();
+        long count = queryFactory
+                .delete(member)
+                .where(member.age.gt(ageGt))
+                .execute();
+        afterBulk();
+        return count;
+    }
+
+    private void afterBulk() {
+        em.clear();
+        countCache.invalidateAll();
+        countIndex.markStale();
+        nearCache.invalidateAll();
+        dataVersion.bump();
+        // 커밋 전에 표시하면 그 사이 재계산이 커밋 전 데이터를 읽고 표시를 지우므로 커밋 이후 표시
+        AfterTransactionCompletion.onCommit(teamStatsRepairJob, Boolean.TRUE, change -> teamStatsRepairJob.markDirty());
+    }
+
+    // ========== Chunked Bulk (MemberSearchCond) ========== //
+    /**
+     * 청크 단위 벌크 연산
+     * 검색 조건에 맞는 회원을 member.id 순으로 chunkSize 건씩 잘라 청크마다 별도의 짧은 트랜잭션에서 실행
+     * -> 한번에 전체 범위를 잠그지 않으므로 유지보수 작업 중에도 조회가 막히지 않음
+     * 청크 커밋 후 호출자 영속성 컨텍스트에서 해당 id 의 관리 엔티티를 분리하여 stale 데이터 방지 (flush / clear 불필요)
+     * (청크 트랜잭션은 별도 영속성 컨텍스트를 사용하므로 청크 안에서는 분리할 엔티티가 없음)
+     * 주의: 분리되는 엔티티의 flush 되지 않은 변경은 버려짐
+     *  호출자 트랜잭션에서 대신 flush 하면 해당 행의 락을 호출자가 쥔 채로 청크 트랜잭션이 같은 행을 기다리므로 flush 하지 않음
+     *  -> 대상 회원을 수정한 경우 호출 전에 커밋해야 함
+     * 팀 조건이 없으면 팀이 없는 회원도 대상 (left join)
+     */
+    public BulkOperationResult chunkedUpdateUsername(MemberSearchCond condition, String username, int chunkSize) {
+        // 청크 진행 중에도 username 인덱스가 어긋나므로 시작 전부터 사용 중지
+        usernameIndex.markStale();
+        BulkOperationResult result = chunked(condition, chunkSize, ids -> queryFactory
+                .update(member)
+                .set(member.username, username)
+                .where(member.id.in(ids))
+                .execute());
+        usernameIndex.markStale();
+        return result;
+    }
+
+    public BulkOperationResult chunkedAddAge(MemberSearchCond condition, int amount, int chunkSize) {
+        return chunked(condition, chunkSize, ids -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(amount))
+                .where(member.id.in(ids))
+                .execute());
+    }
+
+    public BulkOperationResult chunkedDelete(MemberSearchCond condition, int chunkSize) {
+        return chunked(condition, chunkSize, ids -> queryFactory
+                .delete(member)
+                .where(member.id.in(ids))
+                .execute());
+    }
+
+    private BulkOperationResult chunked(MemberSearchCond condition, int chunkSize, Function<List<Long>, Long> operation) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+
+        List<BulkChunkResult> chunks = new ArrayList<>();
+        Long lastId = null;
+        countIndex.markStale();
+
+        while (true) {
+            long start = System.nanoTime();
+            Long afterId = lastId;
+
+            List<Long> ids = chunkTransaction.execute(status -> {
+                List<Long> chunkIds = queryFactory
+                        .select(member.id)
+                        .from(member)
+                        .leftJoin(member.team, team)
+                        .where(memberSearchEq(condition), afterId != null ? member.id.gt(afterId) : null)
+                        .orderBy(member.id.asc())
+                        .limit(chunkSize)
+                        .fetch();
+                if (!chunkIds.isEmpty()) {
+                    long affected = operation.apply(chunkIds);
+                    chunks.add(new BulkChunkResult(chunks.size() + 1, chunkIds.get(0),
+                            chunkIds.get(chunkIds.size() - 1), affected, (System.nanoTime() - start) / 1_000_000));
+                }
+                return chunkIds;
+            });
+
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            // 호출자 영속성 컨텍스트 (호출자 트랜잭션 / OSIV) 에도 반영
+            evict(ids);
+            countCache.invalidateAll();
+            countIndex.markStale();
+            nearCache.invalidateAll();
+            dataVersion.bump();
+            // 청크 트랜잭션은 이미 커밋됨
+            teamStatsRepairJob.markDirty();
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        return new BulkOperationResult(chunks);
+    }
+
+    // 현재 스레드에 바인딩된 영속성 컨텍스트에서 해당 id 의 Member 엔티티 분리
+    private void evict(List<Long> ids) {
+        EntityManager current = EntityManagerFactoryUtils.getTransactionalEntityManager(em.getEntityManagerFactory());
+        if (current == null) {
+            return;
+        }
+        Set<Long> idSet = new HashSet<>(ids);
+        SessionImplementor session = current.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            Object entity = entry.getKey();
+            if (entity instanceof Member && idSet.contains(((Member) entity).getId())) {
+                current.detach(entity);
+            }
+        }
     }
 
     // BooleanBuilder 조립
     private BooleanBuilder memberSearchEq(MemberSearchCond condition) {
-        return usernameEq(condition.getUsername())
+        return usernameEq(condition)
                 .and(teamNameEq(condition.getTeamName()))
                 .and(ageGoe(condition.getAgeGoe()))
                 .and(ageLoe(condition.getAgeLoe()));
     }
 
-    private BooleanBuilder usernameEq(String username) {
-        return hasText(username) ? new BooleanBuilder(member.username.eq(username)) : new BooleanBuilder();
+    // EXACT 는 eq, PREFIX / CONTAINS 는 username 인덱스 후보 id + like
+    private BooleanBuilder usernameEq(MemberSearchCond condition) {
+        return new BooleanBuilder(usernameIndex.usernameMatches(condition.getUsername(), condition.getUsernameMatch()));
     }
 
     private BooleanBuilder teamNameEq(String teamName) {
@@ -0,0 +1,144 @@
+package study.querydsll.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsll.cache.TinyLfuCache;
+import study.querydsll.dto.MemberTeamDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 회원 + 팀 읽기 전용 스냅샷(MemberTeamDto) near cache (W-TinyLFU, member id 기준)
+ * 회원 쓰기는 해당 id 만, 팀 쓰기 / 벌크 연산은 전체 무효화 (스냅샷에 팀 이름이 포함되므로)
+ * 무효화는 즉시 한번, 커밋 후 한번 더 (커밋 전 다른 스레드가 이전 값을 다시 적재하는 경우 대비)
+ * 무효화 세대가 적재 시작 후 바뀌었으면 적재 결과를 캐시하지 않음
+ * 읽기 / 쓰기 트랜잭션 안에서는 자신의 미커밋 변경을 봐야 하고 캐시에 넣어서도 안되므로 캐시를 거치지 않음
+ * 적재 후 TTL(member.near-cache.ttl) 이 지나면 다시 적재
+ * (복제 지연 중인 레플리카에서 읽은 값이나 다른 인스턴스의 쓰기로 바뀐 값이 계속 남지 않도록)
+ *
+ * 메트릭
+ * - member.near-cache.requests (result=hit|miss, 만료 항목은 miss), member.near-cache.evictions, member.near-cache.size
+ * - member.near-cache.hot-key.frequency (rank=1..N) : 상위 hot key 의 추정 접근 빈도 (키 목록은 hotKeys())
+ */
+@Component
+public class MemberNearCache {
+
+    private static final long HOT_KEYS_REFRESH_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final TinyLfuCache<Long, Entry> cache;
+    private final long ttlNanos;
+    private final int hotKeyCount;
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object committedEvictions = new Object();
+
+    private volatile List<TinyLfuCache.HotKey<Long>> hotKeys = List.of();
+    private volatile long hotKeysRefreshedAt = System.nanoTime() - HOT_KEYS_REFRESH_NANOS;
+
+    public MemberNearCache(MeterRegistry registry,
+                           @Value("${member.near-cache.max-size:10000}") int maxSize,
+                           @Value("${member.near-cache.hot-keys:10}") int hotKeyCount,
+                           @Value("${member.near-cache.ttl:30s}") Duration ttl) {
+        this.cache = new TinyLfuCache<>(maxSize);
+        this.ttlNanos = ttl.toNanos();
+        this.hotKeyCount = hotKeyCount;
+
+        FunctionCounter.builder("member.near-cache.requests", this, nearCache -> nearCache.cache.hitCount() - nearCache.expired.get())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("member.near-cache.requests", this, nearCache -> nearCache.cache.missCount() + nearCache.expired.get())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("member.near-cache.evictions", cache, TinyLfuCache::evictionCount)
+                .register(registry);
+        Gauge.builder("member.near-cache.size", cache, TinyLfuCache::size)
+                .register(registry);
+        for (int rank = 1; rank <= hotKeyCount; rank++) {
+            int index = rank - 1;
+            Gauge.builder("member.near-cache.hot-key.frequency", this, nearCache -> nearCache.hotKeyFrequency(index))
+                    .tag("rank", String.valueOf(rank))
+                    .register(registry);
+        }
+    }
+
+    public MemberTeamDto get(Long memberId, Supplier<MemberTeamDto> loader) {
+        if (inReadWriteTransaction()) {
+            return loader.get();
+        }
+        Entry cached = cache.get(memberId);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached.value;
+            }
+            expired.incrementAndGet();
+        }
+        long startGeneration = generation.get();
+        MemberTeamDto loaded = loader.get();
+        if (loaded != null && generation.get() == startGeneration) {
+            cache.put(memberId, new Entry(loaded, System.nanoTime() + ttlNanos));
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long memberId) {
+        evict(memberId);
+        AfterTransactionCompletion.onCommit(committedEvictions, memberId, this::evict);
+    }
+
+    public void invalidateAll() {
+        clear();
+        AfterTransactionCompletion.runOnce(this, this::clear);
+    }
+
+    // 추정 접근 빈도 상위 키 (최대 10초 전 스냅샷)
+    public List<TinyLfuCache.HotKey<Long>> hotKeys() {
+        long now = System.nanoTime();
+        if (now - hotKeysRefreshedAt >= HOT_KEYS_REFRESH_NANOS) {
+            hotKeys = cache.hotKeys(hotKeyCount);
+            hotKeysRefreshedAt = now;
+        }
+        return hotKeys;
+    }
+
+    private double hotKeyFrequency(int index) {
+        List<TinyLfuCache.HotKey<Long>> current = hotKeys();
+        return index < current.size() ? current.get(index).getFrequency() : 0;
+    }
+
+    private void evict(Long memberId) {
+        generation.incrementAndGet();
+        cache.invalidate(memberId);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static class Entry {
+
+        private final MemberTeamDto value;
+        private final long expiresAt;
+
+        private Entry(MemberTeamDto value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return expiresAt - System.nanoTime() <= 0;
+        }
+    }
+}
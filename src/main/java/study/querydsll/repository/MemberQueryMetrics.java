@@ -0,0 +1,125 @@
+package study.querydsll.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 레포지토리 쿼리 메트릭 (Micrometer)
+ * - member.repository.query : 메서드 / 검색 조건 형태별 지연 시간 (percentile histogram)
+ * - member.repository.rows : 반환 row 수
+ * - member.repository.count : 페이징 카운트 쿼리 실행 / 생략 횟수 (outcome=executed|skipped)
+ *   카운트 SQL 을 실제로 실행한 경우만 executed (비트맵 인덱스 / 카운트 캐시 / 통계 추정으로 응답하면 skipped)
+ */
+@Component
+public class MemberQueryMetrics {
+
+    private final MeterRegistry registry;
+
+    // (method, shape) 별 미터 캐시 (매 호출마다 레지스트리 조회 / 빌더 생성 방지)
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counts = new ConcurrentHashMap<>();
+
+    public MemberQueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T extends Collection<?>> T list(String method, MemberSearchCond condition, Supplier<T> query) {
+        return list(method, MemberSearchTemplates.shapeName(condition), query);
+    }
+
+    public <T extends Collection<?>> T list(String method, String shape, Supplier<T> query) {
+        long start = System.nanoTime();
+        T result = query.get();
+        record(method, shape, System.nanoTime() - start, result.size());
+        return result;
+    }
+
+    public <T> Page<T> page(String method, MemberSearchCond condition, Supplier<Page<T>> query) {
+        String shape = MemberSearchTemplates.shapeName(condition);
+        long start = System.nanoTime();
+        Page<T> result = query.get();
+        record(method, shape, System.nanoTime() - start, result.getNumberOfElements());
+        return result;
+    }
+
+    /**
+     * 카운트 쿼리 실행 여부 추적
+     * PageableExecutionUtils 에 전달하고 페이지 생성 후 finish() 호출
+     */
+    public CountProbe countProbe(String method, MemberSearchCond condition, LongSupplier countQuery) {
+        return new CountProbe(method, MemberSearchTemplates.shapeName(condition), countQuery);
+    }
+
+    public void countOutcome(String method, MemberSearchCond condition, boolean executed) {
+        counter(method, MemberSearchTemplates.shapeName(condition), executed ? "executed" : "skipped").increment();
+    }
+
+    private void record(String method, String shape, long elapsedNanos, int rowCount) {
+        String key = method + '|' + shape;
+        timers.computeIfAbsent(key, k -> Timer.builder("member.repository.query")
+                        .description("member repository query latency")
+                        .tag("method", method)
+                        .tag("shape", shape)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rows.computeIfAbsent(key, k -> DistributionSummary.builder("member.repository.rows")
+                        .description("rows returned by member repository query")
+                        .tag("method", method)
+                        .tag("shape", shape)
+                        .register(registry))
+                .record(rowCount);
+    }
+
+    private Counter counter(String method, String shape, String outcome) {
+        return counts.computeIfAbsent(method + '|' + shape + '|' + outcome, k -> Counter.builder("member.repository.count")
+                .description("paging count query executions")
+                .tag("method", method)
+                .tag("shape", shape)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public class CountProbe implements LongSupplier {
+
+        private final String method;
+        private final String shape;
+        private final LongSupplier countQuery;
+        private boolean executed;
+
+        private CountProbe(String method, String shape, LongSupplier countQuery) {
+            this.method = method;
+            this.shape = shape;
+            this.countQuery = countQuery;
+        }
+
+        @Override
+        public long getAsLong() {
+            executed = true;
+            return countQuery.getAsLong();
+        }
+
+        public void finish() {
+            finish(true);
+        }
+
+        // queried : 카운트 supplier 가 실제로 SQL 을 실행했는지
+        public void finish(boolean queried) {
+            counter(method, shape, executed && queried ? "executed" : "skipped").increment();
+        }
+    }
+}
@@ -2,9 +2,14 @@ package study.querydsll.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import study.querydsll.dto.CountMode;
+import study.querydsll.dto.CountedPage;
+import study.querydsll.dto.MemberCursorPage;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,4 +22,15 @@ public interface MemberRepositoryCustom {
     Page<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable);
 
     Page<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable);
+
+    // 카운트 방식 지정 (정확 / 상한 / 추정)
+    CountedPage<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable, CountMode countMode);
+
+    CountedPage<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable, CountMode countMode);
+
+    MemberCursorPage searchByCursor(MemberSearchCond condition, String cursor, int size);
+
+    List<Member> findAllByIds(Collection<Long> ids);
+
+    List<Member> findAllByUsernames(Collection<String> usernames);
 }
@@ -1,20 +1,30 @@
 package study.querydsll.repository;
 
 import com.querydsl.core.BooleanBuilder;
-import com.querydsl.core.QueryResults;
-import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.dto.CountMode;
+import study.querydsll.dto.CountedPage;
+import study.querydsll.dto.MemberCursor;
+import study.querydsll.dto.MemberCursorPage;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
 import study.querydsll.dto.QMemberTeamDto;
 import study.querydsll.entity.Member;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsll.entity.QMember.member;
@@ -25,42 +35,82 @@ import static study.querydsll.entity.QTeam.team;
  */
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    private static final int IN_CHUNK_SIZE = 512;
+
+    private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache countCache;
+    private final MemberSearchTemplates searchTemplates;
+    private final MemberSearchIndexAdvisor indexAdvisor;
+    private final ConcurrentCountExecutor concurrentCount;
+    private final MemberQueryMetrics queryMetrics;
+    private final UsernameIndex usernameIndex;
+    private final MemberCountIndex countIndex;
+    private final MemberCountEstimator countEstimator;
+    private final long deferredJoinOffset;
+    private final long countCap;
+    private final int maxCursorSize;
 
-    public MemberRepositoryCustomImpl(EntityManager em) {
-        this.queryFactory = new JPAQueryFactory(em);
+    public MemberRepositoryCustomImpl(EntityManager em,
+                                      MemberCountCache countCache,
+                                      MemberSearchTemplates searchTemplates,
+                                      MemberSearchIndexAdvisor indexAdvisor,
+                                      ConcurrentCountExecutor concurrentCount,
+                                      MemberQueryMetrics queryMetrics,
+                                      UsernameIndex usernameIndex,
+                                      MemberCountIndex countIndex,
+                                      MemberCountEstimator countEstimator,
+                                      @Value("${member.deferred-join.offset-threshold:1000}") long deferredJoinOffset,
+                                      @Value("${member.count.cap:10000}") long countCap,
+                                      @Value("${member.cursor.max-size:100}") int maxCursorSize) {
+        this.em = em;
+        this.queryFactory = new DeadlineJPAQueryFactory(em);
+        this.countCache = countCache;
+        this.searchTemplates = searchTemplates;
+        this.indexAdvisor = indexAdvisor;
+        this.concurrentCount = concurrentCount;
+        this.queryMetrics = queryMetrics;
+        this.usernameIndex = usernameIndex;
+        this.countIndex = countIndex;
+        this.countEstimator = countEstimator;
+        this.deferredJoinOffset = deferredJoinOffset;
+        this.countCap = countCap;
+        this.maxCursorSize = maxCursorSize;
     }
 
+    // 검색 조건 형태별 사전 컴파일 템플릿 사용 (MemberSearchTemplates)
     @Override
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCond condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .join(member.team, team)
-                .where(memberSearchEq(condition))
-                .fetch();
+        return queryMetrics.list("MemberRepository.search", condition, () -> searchTemplates.fetch(em, condition));
     }
 
     /**
      * 단순한 페이징
-     * 조회 쿼리 / 페이징 쿼리를 분리하지 않고 fetchResults()를 통해 한번에 조회
+     * 조회 쿼리 / 카운트 쿼리를 항상 함께 실행 (deprecated 된 fetchResults() 대신 조회 템플릿 + 카운트 방식별 카운트)
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable) {
+        return searchPageSimple(condition, pageable, CountMode.EXACT);
+    }
 
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .join(member.team, team)
-                .where(memberSearchEq(condition))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<MemberTeamDto> searchPageSimple(MemberSearchCond condition, Pageable pageable, CountMode countMode) {
+        return (CountedPage<MemberTeamDto>) queryMetrics.page("MemberRepository.searchPageSimple", condition,
+                () -> pageSimple(condition, pageable, countMode));
+    }
 
-        List<MemberTeamDto> content = results.getResults();
-        long totalCount = results.getTotal();
+    private CountedPage<MemberTeamDto> pageSimple(MemberSearchCond condition, Pageable pageable, CountMode countMode) {
 
-        return new PageImpl<>(content, pageable, totalCount);
+        List<MemberTeamDto> content = searchTemplates.fetch(em, condition, pageable);
+
+        Total total = new Total(condition, pageable, countMode, countIndex.count(condition));
+        long totalCount = total.getAsLong();
+        queryMetrics.countOutcome("MemberRepository.searchPageSimple", condition, total.queried);
+
+        return new CountedPage<>(new PageImpl<>(content, pageable, totalCount), countMode, total.exact);
     }
 
     /**
@@ -68,52 +118,247 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
      * 조회 쿼리 / 페이징 쿼리를 분리하여 성능 최적화 가능
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable) {
+        return searchPageComplex(condition, pageable, CountMode.EXACT);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<MemberTeamDto> searchPageComplex(MemberSearchCond condition, Pageable pageable, CountMode countMode) {
+        return (CountedPage<MemberTeamDto>) queryMetrics.page("MemberRepository.searchPageComplex", condition,
+                () -> pageComplex(condition, pageable, countMode));
+    }
+
+    private CountedPage<MemberTeamDto> pageComplex(MemberSearchCond condition, Pageable pageable, CountMode countMode) {
+
+        // 비트맵 인덱스 카운트 (MemberCountIndex), 재구성 중 등 사용할 수 없으면 null -> SQL 카운트
+        Long indexedCount = countIndex.count(condition);
+
+        /**
+         * 카운트 쿼리 동시 실행 (member.concurrent-count.enabled)
+         * 카운트 쿼리를 별도 읽기 전용 커넥션에서 먼저 시작하고 조회 쿼리를 실행
+         * PageableExecutionUtils 가 카운트를 생략하면 실행 중인 카운트 쿼리 취소
+         * 정확한 카운트(EXACT)만 동시 실행, 상한 / 추정 카운트는 충분히 가벼우므로 필요할 때만 실행
+         */
+        Total total = new Total(condition, pageable, countMode, indexedCount);
+        if (indexedCount == null && countMode == CountMode.EXACT && concurrentCount.isAvailable()) {
+            total.startConcurrent();
+        }
+
+        // 카운트 쿼리 실행 / 생략 여부 기록 (MemberQueryMetrics)
+        MemberQueryMetrics.CountProbe countQuery = queryMetrics.countProbe("MemberRepository.searchPageComplex", condition, total);
+
+        try {
+            // 조회 쿼리 (검색 조건 형태별 사전 컴파일 템플릿), offset 이 기준 이상이면 id 먼저 조회하는 지연 조인
+            List<MemberTeamDto> content = pageable.getOffset() >= deferredJoinOffset
+                    ? searchTemplates.fetchDeferred(em, condition, pageable)
+                    : searchTemplates.fetch(em, condition, pageable);
+
+            /**
+             * 카운트 쿼리 최적화
+             * PageableExecutionUtils.getPage(content, pageable, () ->) 사용
+             * count 쿼리 생략 가능한 경우 생략 처리
+             * ex1) 페이지의 시작이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
+             * ex2) 마지막 페이지 (offset + 컨텐츠 사이즈를 더해 전체 사이즈를 구함)
+             * 생략할 수 없는 경우에도 동일 검색 조건의 카운트는 MemberCountCache 에서 재사용
+             * 생략한 경우 전체 카운트는 정확한 값
+             */
+            Page<MemberTeamDto> page = PageableExecutionUtils.getPage(content, pageable, countQuery);
+            countQuery.finish(total.queried);
+            return new CountedPage<>(page, countMode, total.exact);
+        } finally {
+            total.cancelConcurrent();
+        }
+    }
+
+    /**
+     * 카운트 방식별 전체 카운트 (CountMode)
+     * 비트맵 인덱스 / 동시 실행 카운트가 있으면 방식과 무관하게 그 값을 사용 (정확한 값)
+     * 동시 실행 카운트가 wait-timeout 안에 시작하지 못하면 취소하고 EXACT 방식으로 순차 실행 (시작한 카운트는 끝까지 대기)
+     * - EXACT : 검색 조건 형태별 카운트 템플릿 (team 조인 없음), MemberCountCache 재사용
+     * - CAPPED : 캐시된 정확한 카운트가 없으면 상한 + 1 건까지만 세고, 넘으면 상한을 하한 값으로 반환
+     *            깊은 페이지에서도 다음 페이지 여부를 알 수 있도록 상한은 최소 offset + pageSize
+     * - ESTIMATED : 캐시된 정확한 카운트가 없으면 팀 통계 추정치 (MemberCountEstimator), 추정할 수 없으면 CAPPED
+     * queried : member 카운트 SQL 실행 여부 (비트맵 인덱스 / 카운트 캐시 / 통계 추정으로 응답하면 false, 메트릭용)
+     */
+    private class Total implements LongSupplier {
+
+        private final MemberSearchCond condition;
+        private final Pageable pageable;
+        private final CountMode countMode;
+        private final Long indexedCount;
+        private ConcurrentCountExecutor.PendingCount pendingCount;
+        private boolean exact = true;
+        // 동시 실행 카운트는 다른 스레드에서 표시
+        private volatile boolean queried;
+
+        private Total(MemberSearchCond condition, Pageable pageable, CountMode countMode, Long indexedCount) {
+            this.condition = condition;
+            this.pageable = pageable;
+            this.countMode = countMode;
+            this.indexedCount = indexedCount;
+        }
+
+        // 정확한 카운트를 별도 읽기 전용 커넥션에서 먼저 시작
+        private void startConcurrent() {
+            pendingCount = concurrentCount.submit(() -> countCache.get(condition, this::fetchCount));
+        }
+
+        private void cancelConcurrent() {
+            if (pendingCount != null) {
+                pendingCount.cancel();
+            }
+        }
+
+        @Override
+        public long getAsLong() {
+            if (indexedCount != null) {
+                return indexedCount;
+            }
+            if (pendingCount != null) {
+                Long count = pendingCount.join();
+                if (count != null) {
+                    return count;
+                }
+                // wait-timeout 안에 시작하지 못함 (커넥션 / 스레드 부족 등) -> 이미 취소됨, 현재 커넥션에서 순차 실행
+            }
+            if (countMode == CountMode.EXACT) {
+                return countCache.get(condition, this::fetchCount);
+            }
 
-        // 조회 쿼리
+            Long cached = countCache.peek(condition);
+            if (cached != null) {
+                return cached;
+            }
+            if (countMode == CountMode.ESTIMATED) {
+                Long estimate = countEstimator.estimate(condition);
+                if (estimate != null) {
+                    exact = false;
+                    return estimate;
+                }
+            }
+
+            long cap = pageable.isPaged() ? Math.max(countCap, pageable.getOffset() + pageable.getPageSize()) : countCap;
+            queried = true;
+            long capped = searchTemplates.fetchCappedCount(em, condition, cap);
+            if (capped > cap) {
+                exact = false;
+                return cap;
+            }
+            return capped;
+        }
+
+        private long fetchCount() {
+            queried = true;
+            return searchTemplates.fetchCount(em, condition);
+        }
+    }
+
+    /**
+     * Keyset(커서) 페이징
+     * offset 대신 마지막으로 조회한 (age, member.id) 이후부터 조회하여 페이지 깊이와 무관하게 일정한 비용
+     * size + 1 건을 조회하여 다음 페이지 존재 여부 판단 (카운트 쿼리 없음)
+     * size 는 1 ~ member.cursor.max-size 범위로 보정 (음수 limit / size + 1 overflow 방지)
+     * 잘못된 커서 토큰은 InvalidCursorException
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MemberCursorPage searchByCursor(MemberSearchCond condition, String cursor, int requestedSize) {
+
+        int size = Math.max(1, Math.min(requestedSize, maxCursorSize));
+        long start = System.nanoTime();
         List<MemberTeamDto> content = queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
                 .from(member)
                 .join(member.team, team)
-                .where(memberSearchEq(condition))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .where(memberSearchEq(condition).and(afterCursor(cursor)))
+                .orderBy(member.age.asc(), member.id.asc())
+                .limit(size + 1)
                 .fetch();
+        indexAdvisor.record(condition, System.nanoTime() - start);
 
-        // 카운트 쿼리
-        long totalCount = queryFactory
-                .selectFrom(member)
-                .join(member.team, team)
-                .where(memberSearchEq(condition))
-                .fetchCount();
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.remove(size);
+        }
 
-//        return new PageImpl<>(content, pageable, totalCount);
+        return new MemberCursorPage(content, size, hasNext);
+    }
 
-        /**
-         * 카운트 쿼리 최적화
-         * PageableExecutionUtils.getPage(content, pageable, () ->) 사용
-         * count 쿼리 생략 가능한 경우 생략 처리
-         * ex1) 페이지의 시작이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
-         * ex2) 마지막 페이지 (offset + 컨텐츠 사이즈를 더해 전체 사이즈를 구함)
-         */
-        JPAQuery<Member> countQuery = queryFactory
-                .selectFrom(member)
-                .join(member.team, team)
-                .where(memberSearchEq(condition));
+    /**
+     * 다건 조회 (id / username 목록)
+     * 키를 IN_CHUNK_SIZE 단위 IN 절로 나누고 2의 거듭제곱 크기로 패딩하여 조회 (InClauseChunks)
+     * ex) 1,000건 -> 512 + 512(488 + 패딩) 2번의 쿼리
+     * 결과는 입력 순서 (중복 키는 첫 등장 위치), 없는 키는 제외
+     * username 은 유일하지 않으므로 같은 username 의 회원은 id 순으로 모두 반환
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        List<Long> keys = InClauseChunks.distinct(ids);
+        return queryMetrics.list("MemberRepository.findAllByIds", "ids", () -> {
+            Map<Long, Member> found = new HashMap<>();
+            for (List<Long> chunk : InClauseChunks.of(keys, IN_CHUNK_SIZE)) {
+                for (Member result : queryFactory.selectFrom(member).where(member.id.in(chunk)).fetch()) {
+                    found.put(result.getId(), result);
+                }
+            }
+            List<Member> members = new ArrayList<>(found.size());
+            for (Long key : keys) {
+                Member result = found.get(key);
+                if (result != null) {
+                    members.add(result);
+                }
+            }
+            return members;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findAllByUsernames(Collection<String> usernames) {
+        List<String> keys = InClauseChunks.distinct(usernames);
+        return queryMetrics.list("MemberRepository.findAllByUsernames", "usernames", () -> {
+            Map<String, List<Member>> found = new HashMap<>();
+            for (List<String> chunk : InClauseChunks.of(keys, IN_CHUNK_SIZE)) {
+                List<Member> results = queryFactory
+                        .selectFrom(member)
+                        .where(member.username.in(chunk))
+                        .orderBy(member.id.asc())
+                        .fetch();
+                for (Member result : results) {
+                    found.computeIfAbsent(result.getUsername(), key -> new ArrayList<>()).add(result);
+                }
+            }
+            List<Member> members = new ArrayList<>();
+            for (String key : keys) {
+                members.addAll(found.getOrDefault(key, Collections.emptyList()));
+            }
+            return members;
+        });
+    }
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+    private BooleanBuilder afterCursor(String cursor) {
+        if (!hasText(cursor)) {
+            return new BooleanBuilder();
+        }
+        MemberCursor last = MemberCursor.decode(cursor);
+        return new BooleanBuilder(member.age.gt(last.getAge())
+                .or(member.age.eq(last.getAge()).and(member.id.gt(last.getMemberId()))));
     }
 
     // BooleanBuilder 조립
     private BooleanBuilder memberSearchEq(MemberSearchCond condition) {
-        return usernameEq(condition.getUsername())
+        return usernameEq(condition)
                 .and(teamNameEq(condition.getTeamName()))
                 .and(ageGoe(condition.getAgeGoe()))
                 .and(ageLoe(condition.getAgeLoe()));
     }
 
-    private BooleanBuilder usernameEq(String username) {
-        return hasText(username) ? new BooleanBuilder(member.username.eq(username)) : new BooleanBuilder();
+    // EXACT 는 eq, PREFIX / CONTAINS 는 username 인덱스 후보 id + like
+    private BooleanBuilder usernameEq(MemberSearchCond condition) {
+        return new BooleanBuilder(usernameIndex.usernameMatches(condition.getUsername(), condition.getUsernameMatch()));
     }
 
     private BooleanBuilder teamNameEq(String teamName) {
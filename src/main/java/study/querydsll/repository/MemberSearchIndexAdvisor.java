@@ -0,0 +1,147 @@
+package study.querydsll.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.dto.MemberSearchCond.UsernameMatch;
+import study.querydsll.dto.SearchShapeAdvice;
+import study.querydsll.entity.Member;
+
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 인덱스 어드바이저
+ * 실제로 실행된 MemberSearchCond 형태(shape) + username 비교 방식별 실행 횟수 / 소요 시간을 기록하고
+ * Member 에 선언된 인덱스(@Table(indexes))로 처리할 수 없는 느린 형태에 대해 인덱스 생성 DDL 제안
+ *
+ * 인덱스 사용 가능 판단
+ * - 동등 조건 컬럼 (username EXACT, team_id) 이 모두 인덱스 선두 컬럼들이어야 함 (순서 무관)
+ * - 동등 조건이 없으면 범위 조건 컬럼 (age, username PREFIX) 이 선두 컬럼이어야 함
+ * - 동등 조건 바로 뒤에 범위 조건 컬럼이 오는 인덱스를 우선
+ * - username CONTAINS (like '%x%') 는 B-tree 인덱스를 사용할 수 없으므로 조건 컬럼에서 제외
+ */
+@Component
+public class MemberSearchIndexAdvisor {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final UsernameMatch[] MATCHES = UsernameMatch.values();
+
+    private final long slowThresholdNanos;
+    private final List<List<String>> declaredIndexes;
+    private final List<String> declaredIndexNames;
+    // shape * MATCHES.length + username 비교 방식 (username 조건이 없으면 EXACT)
+    private final Stats[] stats = new Stats[MemberSearchTemplates.SHAPE_COUNT * MATCHES.length];
+
+    public MemberSearchIndexAdvisor(@Value("${member.index-advisor.slow-threshold:50ms}") Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.declaredIndexes = new ArrayList<>();
+        this.declaredIndexNames = new ArrayList<>();
+        for (Index index : Member.class.getAnnotation(Table.class).indexes()) {
+            declaredIndexNames.add(index.name());
+            declaredIndexes.add(Arrays.stream(index.columnList().split(","))
+                    .map(String::trim)
+                    .collect(Collectors.toList()));
+        }
+        for (int key = 0; key < stats.length; key++) {
+            stats[key] = new Stats();
+        }
+    }
+
+    public void record(MemberSearchCond condition, long elapsedNanos) {
+        int shape = MemberSearchTemplates.shapeOf(condition);
+        UsernameMatch match = (shape & MemberSearchTemplates.USERNAME) != 0 ? condition.getUsernameMatch() : UsernameMatch.EXACT;
+        Stats shapeStats = stats[shape * MATCHES.length + match.ordinal()];
+        shapeStats.executions.increment();
+        shapeStats.totalNanos.add(elapsedNanos);
+        shapeStats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public List<SearchShapeAdvice> advise() {
+        List<SearchShapeAdvice> result = new ArrayList<>();
+        for (int key = 0; key < stats.length; key++) {
+            long executions = stats[key].executions.sum();
+            if (executions == 0) {
+                continue;
+            }
+            int shape = key / MATCHES.length;
+            UsernameMatch match = MATCHES[key % MATCHES.length];
+            Set<String> equalities = equalityColumnsOf(shape, match);
+            Set<String> ranges = rangeColumnsOf(shape, match);
+
+            long avgNanos = stats[key].totalNanos.sum() / executions;
+            String usableIndex = usableIndex(equalities, ranges);
+            String suggestedIndex = usableIndex == null && avgNanos > slowThresholdNanos
+                    ? suggestIndex(equalities, ranges) : null;
+
+            String shapeName = MemberSearchTemplates.shapeName(shape)
+                    + (match != UsernameMatch.EXACT ? "(" + match.name().toLowerCase() + ")" : "");
+            result.add(new SearchShapeAdvice(shapeName, executions,
+                    avgNanos / NANOS_PER_MILLI, stats[key].maxNanos.get() / NANOS_PER_MILLI,
+                    usableIndex, suggestedIndex));
+        }
+        return result;
+    }
+
+    // 동등 조건 컬럼이 모두 선두에 있는 선언 인덱스 (그 다음 컬럼이 범위 조건 컬럼인 인덱스 우선)
+    private String usableIndex(Set<String> equalities, Set<String> ranges) {
+        String usable = null;
+        for (int i = 0; i < declaredIndexes.size(); i++) {
+            List<String> columns = declaredIndexes.get(i);
+            int prefix = equalities.size();
+            if (columns.size() < prefix || !equalities.equals(new HashSet<>(columns.subList(0, prefix)))) {
+                continue;
+            }
+            boolean rangeNext = columns.size() > prefix && ranges.contains(columns.get(prefix));
+            if (rangeNext) {
+                return declaredIndexNames.get(i);
+            }
+            if (prefix > 0 && usable == null) {
+                usable = declaredIndexNames.get(i);
+            }
+        }
+        return usable;
+    }
+
+    // 동등 조건 컬럼을 앞에, 범위 조건 컬럼 하나(age 우선)를 마지막에 배치
+    private String suggestIndex(Set<String> equalities, Set<String> ranges) {
+        List<String> columns = new ArrayList<>(equalities);
+        ranges.stream().findFirst().ifPresent(columns::add);
+        if (columns.isEmpty()) {
+            return null;
+        }
+        return "create index idx_member_" + String.join("_", columns)
+                + " on member (" + String.join(", ", columns) + ")";
+    }
+
+    private Set<String> equalityColumnsOf(int shape, UsernameMatch match) {
+        Set<String> columns = new LinkedHashSet<>();
+        if ((shape & MemberSearchTemplates.USERNAME) != 0 && match == UsernameMatch.EXACT) columns.add("username");
+        if ((shape & MemberSearchTemplates.TEAM_NAME) != 0) columns.add("team_id");
+        return columns;
+    }
+
+    private Set<String> rangeColumnsOf(int shape, UsernameMatch match) {
+        Set<String> columns = new LinkedHashSet<>();
+        if ((shape & (MemberSearchTemplates.AGE_GOE | MemberSearchTemplates.AGE_LOE)) != 0) columns.add("age");
+        if ((shape & MemberSearchTemplates.USERNAME) != 0 && match == UsernameMatch.PREFIX) columns.add("username");
+        return columns;
+    }
+
+    private static class Stats {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
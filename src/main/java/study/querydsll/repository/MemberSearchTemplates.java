@@ -0,0 +1,382 @@
+package study.querydsll.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.dto.MemberSearchCond.UsernameMatch;
+import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.limit.QueryDeadline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsll.entity.QMember.member;
+
+/**
+ * 검색 조건 형태(shape)별 사전 컴파일 쿼리 템플릿
+ * MemberSearchCond 는 각 필드의 존재 여부에 따라 16가지 형태만 가지므로
+ * 형태별 JPQL (조회 / 카운트) 을 애플리케이션 시작 시 한번만 직렬화하고
+ * 호출 시에는 파라미터 값만 바인딩 (식 트리 생성 + JPQL 직렬화 비용 제거)
+ *
+ * team 조인 제거
+ * teamName 조건은 팀 사전(TeamDictionary)으로 team_id 목록을 구해 member.team.id in (...) 으로 바꾸고
+ * teamName 은 조회 후 팀 사전에서 채움
+ * 필수 FK 에 대한 inner join 이었으므로 member.team is not null 조건으로 동일한 결과 보장
+ *
+ * username prefix / contains 조건은 like 로 바꾸고, 트라이그램 인덱스(UsernameIndex)로 후보를 좁힐 수 있으면
+ * member.id in (후보) 를 추가한 템플릿 사용 (형태별 EQ / LIKE / LIKE_IN_IDS 3가지)
+ */
+@Component
+public class MemberSearchTemplates {
+
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+    static final int AGE_GOE = 1 << 2;
+    static final int AGE_LOE = 1 << 3;
+    static final int SHAPE_COUNT = 1 << 4;
+
+    private static final String[] SHAPE_FIELDS = {"username", "teamName", "ageGoe", "ageLoe"};
+    private static final String[] SHAPE_NAMES = new String[SHAPE_COUNT];
+
+    static {
+        for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < SHAPE_FIELDS.length; i++) {
+                if ((shape & 1 << i) != 0) {
+                    fields.add(SHAPE_FIELDS[i]);
+                }
+            }
+            SHAPE_NAMES[shape] = fields.isEmpty() ? "(none)" : String.join(",", fields);
+        }
+    }
+
+    private static final Param<String> usernameParam = new Param<>(String.class, "username");
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final Param<Collection> memberIdsParam = new Param<>(Collection.class, "memberIds");
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final Param<Collection> teamIdsParam = new Param<>(Collection.class, "teamIds");
+    private static final Param<Integer> ageGoeParam = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> ageLoeParam = new Param<>(Integer.class, "ageLoe");
+
+    private static final Expression<Tuple> ROW = Projections.tuple(member.id, member.username, member.age, member.team.id);
+
+    // 지연 조인 2단계 (id 목록으로 행 조회)
+    private static final Jpql BY_IDS = Jpql.of(new JPAQuery<Void>()
+            .select(ROW)
+            .from(member)
+            .where(Expressions.booleanOperation(Ops.IN, member.id, memberIdsParam)), false);
+
+    private final TeamDictionary teamDictionary;
+    private final UsernameIndex usernameIndex;
+    private final MemberSearchIndexAdvisor indexAdvisor;
+    private final Template[][] templates = new Template[UsernameMode.values().length][SHAPE_COUNT];
+
+    public MemberSearchTemplates(TeamDictionary teamDictionary, UsernameIndex usernameIndex, MemberSearchIndexAdvisor indexAdvisor) {
+        this.teamDictionary = teamDictionary;
+        this.usernameIndex = usernameIndex;
+        this.indexAdvisor = indexAdvisor;
+        for (UsernameMode mode : UsernameMode.values()) {
+            for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+                templates[mode.ordinal()][shape] = new Template(shape, mode);
+            }
+        }
+    }
+
+    public List<MemberTeamDto> fetch(EntityManager em, MemberSearchCond condition) {
+        Binding binding = bindingOf(condition);
+        if (binding == null) {
+            return new ArrayList<>();
+        }
+        Query query = binding.template.content.create(em, condition, binding);
+        return toDto(timed(condition, query::getResultList));
+    }
+
+    /**
+     * 페이지 조회 (member.id 순)
+     * offset 페이징은 정렬이 없으면 페이지 간 결과가 보장되지 않고, 지연 조인(fetchDeferred)과 같은 순서여야 하므로 id 순 정렬
+     */
+    public List<MemberTeamDto> fetch(EntityManager em, MemberSearchCond condition, Pageable pageable) {
+        Binding binding = bindingOf(condition);
+        if (binding == null) {
+            return new ArrayList<>();
+        }
+        Query query = binding.template.pagedContent.create(em, condition, binding)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        return toDto(timed(condition, query::getResultList));
+    }
+
+    /**
+     * 지연 조인(deferred join) 2단계 페이지 조회 - 깊은 offset 용
+     * 1단계 : 검색 조건으로 member.id 만 offset / limit 조회 (인덱스만으로 처리 가능, 건너뛰는 행의 컬럼을 읽지 않음)
+     * 2단계 : 해당 id 의 행만 조회 (IN 절 패딩, InClauseChunks) 후 1단계 순서로 재정렬
+     * fetch(em, condition, pageable) 과 같은 결과
+     */
+    public List<MemberTeamDto> fetchDeferred(EntityManager em, MemberSearchCond condition, Pageable pageable) {
+        Binding binding = bindingOf(condition);
+        if (binding == null) {
+            return new ArrayList<>();
+        }
+        Query idQuery = binding.template.pagedIds.create(em, condition, binding)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        @SuppressWarnings("unchecked")
+        List<Long> ids = timed(condition, () -> (List<Long>) idQuery.getResultList());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Object> rows = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : InClauseChunks.of(ids, 512)) {
+            Query rowQuery = QueryDeadline.apply(em.createQuery(BY_IDS.jpql));
+            JPAUtil.setConstants(rowQuery, BY_IDS.constants, Map.<ParamExpression<?>, Object>of(memberIdsParam, chunk));
+            for (Object row : rowQuery.getResultList()) {
+                rows.put((Long) ((Object[]) row)[0], row);
+            }
+        }
+
+        List<Object> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Object row = rows.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return toDto(ordered);
+    }
+
+    public long fetchCount(EntityManager em, MemberSearchCond condition) {
+        Binding binding = bindingOf(condition);
+        if (binding == null) {
+            return 0;
+        }
+        Query query = binding.template.count.create(em, condition, binding);
+        return ((Number) timed(condition, query::getSingleResult)).longValue();
+    }
+
+    /**
+     * 상한 카운트 - limit + 1 건까지만 센 결과 (limit 초과 여부 판단용)
+     * JPQL 은 from 절 서브쿼리를 지원하지 않으므로 네이티브 SQL select count(*) from (select 1 ... limit n)
+     * -> DB 가 limit + 1 건을 찾으면 스캔을 멈추고 건수 하나만 반환 (id 목록을 전송 / 적재하지 않음)
+     * limit 절은 H2 / MySQL / PostgreSQL 문법
+     */
+    public long fetchCappedCount(EntityManager em, MemberSearchCond condition, long limit) {
+        Binding binding = bindingOf(condition);
+        if (binding == null) {
+            return 0;
+        }
+        Query query = QueryDeadline.apply(em.createNativeQuery(binding.template.cappedCountSql));
+        binding.template.params(condition, binding).forEach((param, value) -> query.setParameter(param.getName(), value));
+        query.setParameter("cap", Math.min(Integer.MAX_VALUE, limit + 1));
+        return ((Number) timed(condition, query::getSingleResult)).longValue();
+    }
+
+    // 필드 존재 여부 비트마스크 (memberSearchEq 의 hasText / null 판단과 동일)
+    static int shapeOf(MemberSearchCond condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) shape |= USERNAME;
+        if (hasText(condition.getTeamName())) shape |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) shape |= AGE_GOE;
+        if (condition.getAgeLoe() != null) shape |= AGE_LOE;
+        return shape;
+    }
+
+    // 형태 이름 (ex. "teamName,ageGoe") - 통계 / 메트릭 태그용
+    static String shapeName(int shape) {
+        return SHAPE_NAMES[shape];
+    }
+
+    static String shapeName(MemberSearchCond condition) {
+        return SHAPE_NAMES[shapeOf(condition)];
+    }
+
+    // 템플릿 + 사전 / 인덱스로 구한 파라미터, 쿼리 없이 빈 결과가 확정되면 null
+    private Binding bindingOf(MemberSearchCond condition) {
+        int shape = shapeOf(condition);
+
+        // teamName 조건이 없으면 null, 해당 이름의 팀이 없으면 빈 목록
+        List<Long> teamIds = hasText(condition.getTeamName()) ? teamDictionary.idsOf(condition.getTeamName()) : null;
+        if (teamIds != null && teamIds.isEmpty()) {
+            return null;
+        }
+
+        UsernameMode mode = UsernameMode.EQ;
+        List<Long> memberIds = null;
+        if ((shape & USERNAME) != 0 && condition.getUsernameMatch() != UsernameMatch.EXACT) {
+            memberIds = usernameIndex.candidates(condition.getUsername(), condition.getUsernameMatch());
+            if (memberIds != null && memberIds.isEmpty()) {
+                return null;
+            }
+            mode = memberIds == null ? UsernameMode.LIKE : UsernameMode.LIKE_IN_IDS;
+        }
+        // IN 절 파라미터 수를 2의 거듭제곱으로 맞춰 후보 / 팀 수마다 다른 SQL 이 생기지 않도록 함
+        return new Binding(templates[mode.ordinal()][shape],
+                teamIds != null ? InClauseChunks.padded(teamIds) : null,
+                memberIds != null ? InClauseChunks.padded(memberIds) : null);
+    }
+
+    // like 패턴 (JPQLTemplates 의 startsWith / contains 와 같은 '!' 이스케이프)
+    private static String likePattern(MemberSearchCond condition) {
+        String escaped = condition.getUsername()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return condition.getUsernameMatch() == UsernameMatch.PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+
+    // 검색 조건 형태별 실행 시간 기록 (MemberSearchIndexAdvisor)
+    private <T> T timed(MemberSearchCond condition, Supplier<T> query) {
+        long start = System.nanoTime();
+        try {
+            return query.get();
+        } finally {
+            indexAdvisor.record(condition, System.nanoTime() - start);
+        }
+    }
+
+    private List<MemberTeamDto> toDto(List<?> rows) {
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            Long teamId = (Long) columns[3];
+            result.add(new MemberTeamDto((Long) columns[0], (String) columns[1], (Integer) columns[2],
+                    teamId, teamDictionary.nameOf(teamId)));
+        }
+        return result;
+    }
+
+    private enum UsernameMode {
+        EQ, LIKE, LIKE_IN_IDS
+    }
+
+    private static class Binding {
+
+        private final Template template;
+        private final List<Long> teamIds;
+        private final List<Long> memberIds;
+
+        private Binding(Template template, List<Long> teamIds, List<Long> memberIds) {
+            this.template = template;
+            this.teamIds = teamIds;
+            this.memberIds = memberIds;
+        }
+    }
+
+    private static class Template {
+
+        private final int shape;
+        private final UsernameMode mode;
+        private final Jpql content;
+        private final Jpql pagedContent;
+        private final Jpql pagedIds;
+        private final Jpql count;
+        private final String cappedCountSql;
+
+        private Template(int shape, UsernameMode mode) {
+            this.shape = shape;
+            this.mode = mode;
+
+            BooleanBuilder predicate = predicate(shape, mode);
+            JPAQuery<?> query = new JPAQuery<Void>()
+                    .select(ROW)
+                    .from(member)
+                    .where(predicate);
+
+            this.content = Jpql.of(query, false);
+            this.count = Jpql.of(query, true);
+            this.pagedContent = Jpql.of(new JPAQuery<Void>()
+                    .select(ROW)
+                    .from(member)
+                    .where(predicate)
+                    .orderBy(member.id.asc()), false);
+            this.pagedIds = Jpql.of(new JPAQuery<Void>()
+                    .select(member.id)
+                    .from(member)
+                    .where(predicate)
+                    .orderBy(member.id.asc()), false);
+            this.cappedCountSql = "select count(*) from (select 1 from member m where " + sqlPredicate(shape, mode)
+                    + " limit :cap) capped";
+        }
+
+        // predicate 와 같은 조건의 네이티브 SQL (파라미터 이름도 동일)
+        private static String sqlPredicate(int shape, UsernameMode mode) {
+            StringBuilder sql = new StringBuilder("m.team_id is not null");
+            if ((shape & USERNAME) != 0) {
+                if (mode == UsernameMode.LIKE_IN_IDS) sql.append(" and m.member_id in (:memberIds)");
+                sql.append(mode == UsernameMode.EQ ? " and m.username = :username" : " and m.username like :username escape '!'");
+            }
+            if ((shape & TEAM_NAME) != 0) sql.append(" and m.team_id in (:teamIds)");
+            if ((shape & AGE_GOE) != 0) sql.append(" and m.age >= :ageGoe");
+            if ((shape & AGE_LOE) != 0) sql.append(" and m.age <= :ageLoe");
+            return sql.toString();
+        }
+
+        private static BooleanBuilder predicate(int shape, UsernameMode mode) {
+            BooleanBuilder builder = new BooleanBuilder(member.team.isNotNull());
+            if ((shape & USERNAME) != 0) {
+                if (mode == UsernameMode.LIKE_IN_IDS) builder.and(Expressions.booleanOperation(Ops.IN, member.id, memberIdsParam));
+                builder.and(mode == UsernameMode.EQ ? member.username.eq(usernameParam) : member.username.like(usernameParam, '!'));
+            }
+            if ((shape & TEAM_NAME) != 0) builder.and(Expressions.booleanOperation(Ops.IN, member.team.id, teamIdsParam));
+            if ((shape & AGE_GOE) != 0) builder.and(member.age.goe(ageGoeParam));
+            if ((shape & AGE_LOE) != 0) builder.and(member.age.loe(ageLoeParam));
+            return builder;
+        }
+
+        private Map<ParamExpression<?>, Object> params(MemberSearchCond condition, Binding binding) {
+            Map<ParamExpression<?>, Object> params = new HashMap<>(8);
+            if ((shape & USERNAME) != 0) {
+                params.put(usernameParam, mode == UsernameMode.EQ ? condition.getUsername() : likePattern(condition));
+                if (mode == UsernameMode.LIKE_IN_IDS) params.put(memberIdsParam, binding.memberIds);
+            }
+            if ((shape & TEAM_NAME) != 0) params.put(teamIdsParam, binding.teamIds);
+            if ((shape & AGE_GOE) != 0) params.put(ageGoeParam, condition.getAgeGoe());
+            if ((shape & AGE_LOE) != 0) params.put(ageLoeParam, condition.getAgeLoe());
+            return params;
+        }
+    }
+
+    // 직렬화된 JPQL + 상수 목록
+    private static class Jpql {
+
+        private final String jpql;
+        private final List<Object> constants;
+
+        private Jpql(String jpql, List<Object> constants) {
+            this.jpql = jpql;
+            this.constants = constants;
+        }
+
+        private static Jpql of(JPAQuery<?> query, boolean forCount) {
+            JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+            serializer.serialize(query.getMetadata(), forCount, null);
+            return new Jpql(serializer.toString(), serializer.getConstants());
+        }
+
+        // Binding 의 템플릿과 같은 형태의 쿼리 생성 + 파라미터 바인딩
+        private Query create(EntityManager em, MemberSearchCond condition, Binding binding) {
+            Query query = QueryDeadline.apply(em.createQuery(jpql));
+            JPAUtil.setConstants(query, constants, binding.template.params(condition, binding));
+            return query;
+        }
+    }
+}
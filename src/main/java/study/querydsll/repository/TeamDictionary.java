@@ -0,0 +1,117 @@
+package study.querydsll.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static study.querydsll.entity.QTeam.team;
+
+/**
+ * 팀 사전 (team_id <-> name) 인메모리 캐시
+ * team 테이블은 작고 거의 바뀌지 않으므로 애플리케이션 시작 시 전체 적재
+ * 검색 쿼리에서 team 조인 없이 teamName 조건을 team_id 조건으로 바꾸고, 조회 후 teamName 을 채우는 데 사용
+ * Team 쓰기 시 무효화되며 다음 조회 시 다시 적재 (트랜잭션 중이면 커밋 이후 한번 더 무효화)
+ * 사전에 없는 이름 / id 는 team 테이블을 직접 조회 (auto flush 로 현재 트랜잭션의 flush 전 Team 도 조회됨)
+ * 다른 인스턴스 / 레플리카에서의 변경은 무효화되지 않으므로 TTL(member.team-dictionary.ttl) 경과 시 다시 적재
+ */
+@Component
+public class TeamDictionary {
+
+    private final JPAQueryFactory queryFactory;
+
+    // 무효화 세대. 적재 도중 무효화가 일어나면 적재 결과를 캐시하지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+
+    public TeamDictionary(EntityManager em, @Value("${member.team-dictionary.ttl:60s}") Duration ttl) {
+        this.queryFactory = new DeadlineJPAQueryFactory(em);
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        snapshot();
+    }
+
+    public String nameOf(Long teamId) {
+        if (teamId == null) {
+            return null;
+        }
+        String name = snapshot().namesById.get(teamId);
+        if (name == null) {
+            name = queryFactory.select(team.name).from(team).where(team.id.eq(teamId)).fetchOne();
+        }
+        return name;
+    }
+
+    // 팀 이름은 유일하지 않으므로 같은 이름의 팀 id 를 모두 반환
+    public List<Long> idsOf(String teamName) {
+        List<Long> ids = snapshot().idsByName.get(teamName);
+        if (ids == null) {
+            ids = queryFactory.select(team.id).from(team).where(team.name.eq(teamName)).fetch();
+        }
+        return ids;
+    }
+
+    public void invalidate() {
+        clear();
+        AfterTransactionCompletion.runOnce(this, this::clear);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.isExpired()) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.isExpired()) {
+                    long startGeneration = generation.get();
+                    current = new Snapshot(queryFactory.select(team.id, team.name).from(team).fetch(), System.nanoTime() + ttlNanos);
+                    if (generation.get() == startGeneration) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private static class Snapshot {
+
+        private final Map<Long, String> namesById = new HashMap<>();
+        private final Map<String, List<Long>> idsByName = new HashMap<>();
+        private final long expiresAt;
+
+        private Snapshot(List<Tuple> teams, long expiresAt) {
+            this.expiresAt = expiresAt;
+            for (Tuple tuple : teams) {
+                Long id = tuple.get(team.id);
+                String name = tuple.get(team.name);
+                namesById.put(id, name);
+                idsByName.computeIfAbsent(name, key -> new ArrayList<>()).add(id);
+            }
+        }
+
+        private boolean isExpired() {
+            return expiresAt - System.nanoTime() <= 0;
+        }
+    }
+}
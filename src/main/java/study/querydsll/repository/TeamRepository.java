@@ -0,0 +1,7 @@
+package study.querydsll.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.querydsll.entity.Team;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+}
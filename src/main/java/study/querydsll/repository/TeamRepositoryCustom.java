@@ -0,0 +1,10 @@
+package study.querydsll.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.querydsll.dto.TeamRosterDto;
+
+public interface TeamRepositoryCustom {
+
+    Slice<TeamRosterDto> findRosters(Pageable pageable);
+}
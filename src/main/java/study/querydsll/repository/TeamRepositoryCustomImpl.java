@@ -0,0 +1,76 @@
+package study.querydsll.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import study.querydsll.dto.MemberDto;
+import study.querydsll.dto.QMemberDto;
+import study.querydsll.dto.TeamRosterDto;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static study.querydsll.entity.QMember.member;
+import static study.querydsll.entity.QTeam.team;
+
+public class TeamRepositoryCustomImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepositoryCustomImpl(EntityManager em) {
+        this.queryFactory = new DeadlineJPAQueryFactory(em);
+    }
+
+    /**
+     * 팀 + 소속 회원 페이징 (N+1 없음)
+     * 1. 팀만 페이징 조회 (fetch join 처럼 회원 수만큼 row 가 늘어나지 않으므로 페이징 가능)
+     * 2. 해당 팀들의 회원을 in 쿼리 한번으로 조회하여 GroupBy 로 팀별 목록 변환
+     * -> 팀당 회원 수와 무관하게 항상 쿼리 2번
+     * 카운트 쿼리 대신 size + 1 개를 조회해 다음 페이지 유무만 판단 (Slice)
+     */
+    @Override
+    public Slice<TeamRosterDto> findRosters(Pageable pageable) {
+
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+
+        boolean hasNext = teams.size() > pageable.getPageSize();
+        if (hasNext) {
+            teams = teams.subList(0, pageable.getPageSize());
+        }
+
+        List<Long> teamIds = teams.stream()
+                .map(tuple -> tuple.get(team.id))
+                .collect(Collectors.toList());
+
+        Map<Long, List<MemberDto>> membersByTeam = teamIds.isEmpty()
+                ? Collections.emptyMap()
+                : queryFactory
+                        .from(member)
+                        .where(member.team.id.in(teamIds))
+                        .orderBy(member.id.asc())
+                        .transform(groupBy(member.team.id).as(list(new QMemberDto(member.username, member.age))));
+
+        List<TeamRosterDto> content = new ArrayList<>(teams.size());
+        for (Tuple tuple : teams) {
+            Long teamId = tuple.get(team.id);
+            content.add(new TeamRosterDto(teamId, tuple.get(team.name),
+                    membersByTeam.getOrDefault(teamId, Collections.emptyList())));
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,349 @@
+package study.querydsll.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.querydsll.dto.MemberSearchCond.UsernameMatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsll.entity.QMember.member;
+
+/**
+ * username 트라이그램 인메모리 인덱스 (prefix / contains 검색 후보 id 조회)
+ * username 앞에 구분 문자 2개를 붙여 3글자씩 잘라 저장하므로 prefix 는 1글자부터, contains 는 3글자부터 사용 가능
+ * 트라이그램별 member id 는 RoaringBitmap 으로 보관하고 username 자체는 힙에 두지 않음
+ * 트라이그램 교집합은 후보(superset)일 뿐이므로 실제 like 조건과 함께 사용 (후보 검증은 DB 의 현재 행 기준)
+ *
+ * 유지 방식
+ * - 엔티티 쓰기 이벤트 (MemberEntityListener) : 새 username 트라이그램은 즉시 추가 (같은 트랜잭션 조회에서 보이도록)
+ *   커밋되면 변경된 id 로 기록해 두고 주기적으로 DB 의 현재 username 을 읽어 이전 트라이그램 정리
+ *   정리 전까지 남는 이전 트라이그램 / 롤백된 트라이그램은 like 조건에서 걸러지는 후보일 뿐
+ * - 벌크 username 변경 : markStale() 후 주기적으로 member 전체를 다시 읽어 재구성
+ * 재구성 중 / 후보가 너무 많으면 null 을 반환하며 호출자는 like 조건만으로 조회 (SQL fallback)
+ * member id 가 int 범위를 넘으면 비트맵에 담을 수 없으므로 인덱스 사용 중지
+ */
+@Slf4j
+@Component
+public class UsernameIndex {
+
+    private static final char PAD = '\0';
+    private static final int REFRESH_CHUNK_SIZE = 512;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    // 트랜잭션별 커밋 대기 변경 리소스 key (markStale 의 runOnce key 와 구분)
+    private final Object committedChanges = new Object();
+    private Map<String, RoaringBitmap> postings = new HashMap<>();
+    // 커밋된 쓰기 / 삭제 중 이전 트라이그램이 아직 정리되지 않은 member id
+    private RoaringBitmap changed = new RoaringBitmap();
+    // 재구성 / 정리 중 적용된 변경 (결과에 다시 적용)
+    private List<Change> journal;
+    private volatile boolean ready;
+
+    public UsernameIndex(JdbcTemplate jdbcTemplate,
+                         @Value("${member.username-index.max-candidates:1000}") int maxCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * prefix / contains 조건 predicate
+     * 인덱스로 후보를 좁힐 수 있으면 member.id in (후보, 2의 거듭제곱 크기로 패딩) + like, 아니면 like 만 사용
+     */
+    public BooleanExpression usernameMatches(String username, UsernameMatch match) {
+        if (!hasText(username)) {
+            return null;
+        }
+        if (match == UsernameMatch.EXACT) {
+            return member.username.eq(username);
+        }
+        BooleanExpression like = match == UsernameMatch.PREFIX
+                ? member.username.startsWith(username)
+                : member.username.contains(username);
+        List<Long> ids = candidates(username, match);
+        if (ids == null) {
+            return like;
+        }
+        return ids.isEmpty() ? Expressions.FALSE.isTrue() : member.id.in(InClauseChunks.padded(ids)).and(like);
+    }
+
+    /**
+     * 후보 member id, 인덱스를 사용할 수 없으면 null (재구성 중 / 3글자 미만 contains / 후보 수 초과)
+     */
+    public List<Long> candidates(String username, UsernameMatch match) {
+        if (!hasText(username) || match == UsernameMatch.EXACT) {
+            return null;
+        }
+        Set<String> grams = match == UsernameMatch.PREFIX ? grams(PAD + "" + PAD + username) : grams(username);
+        if (grams.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            List<RoaringBitmap> bitmaps = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                RoaringBitmap ids = postings.get(gram);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                bitmaps.add(ids);
+            }
+            bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+
+            RoaringBitmap result = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size(); i++) {
+                result = RoaringBitmap.and(result, bitmaps.get(i));
+            }
+            if (result.getLongCardinality() > maxCandidates) {
+                return null;
+            }
+            List<Long> ids = new ArrayList<>(result.getCardinality());
+            result.forEach((int id) -> ids.add((long) id));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== 유지 ========== //
+    public void onWrite(Long memberId, String username) {
+        if (username != null) {
+            apply(new Change(memberId, username, false));
+        }
+        AfterTransactionCompletion.onCommit(committedChanges, new Change(memberId, username, true), this::apply);
+    }
+
+    public void onRemove(Long memberId) {
+        AfterTransactionCompletion.onCommit(committedChanges, new Change(memberId, null, true), this::apply);
+    }
+
+    /**
+     * 벌크 연산 등으로 인덱스가 실제 데이터와 달라짐 -> 재구성 전까지 사용 중지
+     * 커밋 전 시작된 재구성이 이전 데이터로 완료되지 않도록 트랜잭션 종료 후 한번 더 표시
+     */
+    public void markStale() {
+        stale();
+        AfterTransactionCompletion.runOnce(this, this::stale);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${member.username-index.rebuild-interval:PT10S}")
+    public void rebuildIfStale() {
+        if (!ready) {
+            rebuild();
+        } else {
+            refreshChanged();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long startGeneration = generation.get();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+            changed = new RoaringBitmap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, RoaringBitmap> newPostings = new HashMap<>();
+        boolean[] overflow = new boolean[1];
+        long[] members = new long[1];
+        try {
+            jdbcTemplate.query("select member_id, username from member", rs -> {
+                long id = rs.getLong(1);
+                if (id > Integer.MAX_VALUE) {
+                    overflow[0] = true;
+                    return;
+                }
+                String username = rs.getString(2);
+                if (username != null) {
+                    add(newPostings, (int) id, username);
+                    members[0]++;
+                }
+            });
+        } catch (RuntimeException e) {
+            endJournal();
+            throw e;
+        }
+        newPostings.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            for (Change change : journal) {
+                change.applyTo(this);
+            }
+            journal = null;
+            ready = !overflow[0] && generation.get() == startGeneration;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (overflow[0]) {
+            log.warn("member id exceeds int range. username index disabled");
+        }
+        log.info("username index rebuilt. members = {}, grams = {}", members[0], newPostings.size());
+    }
+
+    /**
+     * 커밋된 쓰기 / 삭제가 있었던 member 의 트라이그램을 DB 의 현재 username 기준으로 다시 구성
+     * (이전 username 을 힙에 두지 않으므로 해당 id 를 모든 트라이그램에서 제거 후 현재 값으로 추가)
+     */
+    public synchronized void refreshChanged() {
+        RoaringBitmap ids;
+        lock.writeLock().lock();
+        try {
+            if (changed.isEmpty()) {
+                return;
+            }
+            ids = changed;
+            changed = new RoaringBitmap();
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Integer, String> current = new HashMap<>();
+        List<Integer> keys = new ArrayList<>(ids.getCardinality());
+        ids.forEach((int id) -> keys.add(id));
+        try {
+            for (List<Integer> chunk : InClauseChunks.of(keys, REFRESH_CHUNK_SIZE)) {
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                jdbcTemplate.query("select member_id, username from member where member_id in (" + placeholders + ")",
+                        rs -> {
+                            String username = rs.getString(2);
+                            if (username != null) {
+                                current.put(rs.getInt(1), username);
+                            }
+                        }, chunk.toArray());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changed.or(ids);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            endJournal();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.values().removeIf(posting -> {
+                posting.andNot(ids);
+                return posting.isEmpty();
+            });
+            current.forEach((id, username) -> add(postings, id, username));
+            for (Change change : journal) {
+                change.applyTo(this);
+            }
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("username index refreshed. members = {}", keys.size());
+    }
+
+    private void stale() {
+        generation.incrementAndGet();
+        ready = false;
+    }
+
+    private void endJournal() {
+        lock.writeLock().lock();
+        try {
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        if (change.memberId > Integer.MAX_VALUE) {
+            stale();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            change.applyTo(this);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(Map<String, RoaringBitmap> postings, int memberId, String username) {
+        for (String gram : indexGrams(username)) {
+            postings.computeIfAbsent(gram, key -> new RoaringBitmap()).add(memberId);
+        }
+    }
+
+    private static Set<String> indexGrams(String username) {
+        return grams(PAD + "" + PAD + username);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static class Change {
+
+        private final Long memberId;
+        private final String username;
+        private final boolean committed;
+
+        private Change(Long memberId, String username, boolean committed) {
+            this.memberId = memberId;
+            this.username = username;
+            this.committed = committed;
+        }
+
+        // writeLock 보유 상태에서 호출
+        // 커밋된 변경은 정리 대상으로 기록 (정리 중 커밋된 값이 지워지지 않도록 트라이그램도 다시 추가)
+        private void applyTo(UsernameIndex index) {
+            int id = memberId.intValue();
+            if (username != null) {
+                add(index.postings, id, username);
+            }
+            if (committed) {
+                index.changed.add(id);
+            }
+        }
+    }
+}
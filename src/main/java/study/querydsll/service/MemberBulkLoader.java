@@ -0,0 +1,125 @@
+package study.querydsll.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.dto.BulkLoadResult;
+import study.querydsll.dto.MemberLoadRow;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대용량 회원 적재
+ * - 청크 단위 트랜잭션 + hibernate.jdbc.batch_size 로 JDBC batch insert
+ * - 식별자는 pooled 시퀀스 옵티마이저로 할당 (Member / Team 의 allocationSize)
+ * - 청크마다 flush / clear 로 영속성 컨텍스트 크기 일정하게 유지
+ * - 청크 트랜잭션은 항상 새 트랜잭션 (REQUIRES_NEW) : 호출자 트랜잭션 안에서 호출해도 청크마다 커밋되고,
+ *   clear 는 청크 전용 영속성 컨텍스트에만 적용되어 호출자의 관리 엔티티가 분리되지 않음
+ * - workers > 1 이면 워커 스레드마다 별도 트랜잭션(커넥션)으로 병렬 적재
+ */
+@Slf4j
+@Service
+public class MemberBulkLoader {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultChunkSize;
+    private final int defaultWorkers;
+
+    public MemberBulkLoader(EntityManager em,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${member.bulk-load.chunk-size:1000}") int defaultChunkSize,
+                            @Value("${member.bulk-load.workers:1}") int defaultWorkers) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultChunkSize = defaultChunkSize;
+        this.defaultWorkers = defaultWorkers;
+    }
+
+    public BulkLoadResult load(Iterator<MemberLoadRow> rows) {
+        return load(rows, defaultChunkSize, defaultWorkers);
+    }
+
+    public BulkLoadResult load(Iterator<MemberLoadRow> rows, int chunkSize, int workers) {
+
+        long start = System.nanoTime();
+        AtomicLong loadedRows = new AtomicLong();
+        AtomicLong loadedChunks = new AtomicLong();
+
+        Runnable worker = () -> {
+            List<MemberLoadRow> chunk;
+            while (!(chunk = nextChunk(rows, chunkSize)).isEmpty()) {
+                persistChunk(chunk);
+                loadedRows.addAndGet(chunk.size());
+                loadedChunks.incrementAndGet();
+            }
+        };
+
+        if (workers <= 1) {
+            worker.run();
+        } else {
+            runParallel(worker, workers);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkLoadResult result = new BulkLoadResult(loadedRows.get(), loadedChunks.get(), elapsedMillis);
+        log.info("member bulk load finished. {}", result);
+        return result;
+    }
+
+    private void persistChunk(List<MemberLoadRow> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (MemberLoadRow row : chunk) {
+                Team team = row.getTeamId() != null ? em.getReference(Team.class, row.getTeamId()) : null;
+                em.persist(Member.ofTeamReference(row.getUsername(), row.getAge(), team));
+            }
+            em.flush();
+            em.clear();
+        });
+    }
+
+    // 입력 Iterator 는 스레드 안전하지 않으므로 청크 단위로 동기화하여 분배
+    private List<MemberLoadRow> nextChunk(Iterator<MemberLoadRow> rows, int chunkSize) {
+        List<MemberLoadRow> chunk = new ArrayList<>(chunkSize);
+        synchronized (rows) {
+            while (chunk.size() < chunkSize && rows.hasNext()) {
+                chunk.add(rows.next());
+            }
+        }
+        return chunk;
+    }
+
+    private void runParallel(Runnable worker, int workers) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("벌크 적재가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("벌크 적재 중 오류가 발생했습니다.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsll.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.repository.MemberJpaRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 검색 결과 NDJSON 내보내기
+ * 커서로 읽은 행을 즉시 한 줄씩 기록하여 테이블 크기와 무관하게 메모리 사용량 일정
+ * 내보내기 전체에 JsonGenerator 하나만 사용하고 행마다 flush 하지 않음 -> 응답 스트림 flush 는 flushInterval 마다만
+ */
+@Service
+public class MemberExportService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+    private final int flushInterval;
+
+    public MemberExportService(MemberJpaRepository memberJpaRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${member.export.fetch-size:1000}") int fetchSize,
+                               @Value("${member.export.flush-interval:100}") int flushInterval) {
+        this.memberJpaRepository = memberJpaRepository;
+        // 행마다 generator (-> 응답 스트림) flush 하지 않도록 FLUSH_AFTER_WRITE_VALUE 해제
+        this.writer = objectMapper.writerFor(MemberTeamDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(MemberSearchCond condition, OutputStream out) throws IOException {
+
+        long rows = 0;
+        // 응답 스트림을 닫지 않도록 AUTO_CLOSE_TARGET 해제, 값 사이 기본 구분자(공백) 대신 줄바꿈
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+             Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, fetchSize)) {
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                // 첫 행은 바로 내보내고 이후 flushInterval 마다 flush
+                if (++rows == 1 || rows % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            // 남은 버퍼는 close 에서 flush
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,92 @@
+package study.querydsll.service;
+
+import study.querydsll.dto.MemberLoadRow;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * 부하 테스트용 합성 회원 데이터 (MemberBulkLoader 입력)
+ * - 팀 : teamIds 순서대로 Zipf 분포 (첫 팀이 가장 크고 뒤로 갈수록 작아짐), 일부 회원은 팀 없음
+ * - username : 인기 있는 이름일수록 자주 등장하는 Zipf 분포 이름 + 숫자 / 성 접미사, 일부는 이름만 (중복 username)
+ * - age : 평균 35, 표준편차 12 정규 분포 (15 ~ 80)
+ * 같은 seed 면 같은 데이터 (부하 발생기가 같은 이름 / 팀 분포로 검색 조건을 만들 수 있음)
+ */
+public class SyntheticMemberDataset implements Iterator<MemberLoadRow> {
+
+    private static final String[] GIVEN_NAMES = {
+            "minjun", "seoyeon", "jiho", "jiwoo", "seojun", "haeun", "doyun", "hayoon", "eunwoo", "jian",
+            "siwoo", "seoah", "hajun", "jiyu", "yejun", "suah", "juwon", "chaewon", "james", "olivia",
+            "liam", "emma", "noah", "ava", "lucas", "mia", "ethan", "sophia", "daniel", "chloe",
+            "hyunwoo", "yuna", "taeyang", "soyeon", "jaehyun", "dahyun", "kyungsoo", "nayeon", "woojin", "bora"
+    };
+    private static final String[] SURNAMES = {
+            "kim", "lee", "park", "choi", "jung", "kang", "cho", "yoon", "jang", "lim",
+            "han", "oh", "seo", "shin", "kwon", "hwang", "ahn", "song", "smith", "brown"
+    };
+
+    private final Random random;
+    private final List<Long> teamIds;
+    private final ZipfDistribution teams;
+    private final ZipfDistribution givenNames;
+    private final ZipfDistribution surnames;
+    private final double noTeamRatio;
+    private long remaining;
+
+    public SyntheticMemberDataset(long memberCount, List<Long> teamIds, double teamExponent, double noTeamRatio, long seed) {
+        this.random = new Random(seed);
+        this.teamIds = teamIds;
+        this.teams = teamIds.isEmpty() ? null : new ZipfDistribution(teamIds.size(), teamExponent);
+        this.givenNames = givenNames();
+        this.surnames = surnames();
+        this.noTeamRatio = noTeamRatio;
+        this.remaining = memberCount;
+    }
+
+    public static String teamName(int rank) {
+        return "team" + rank;
+    }
+
+    // 이름 인기도 분포 (부하 발생기의 username 조건도 같은 분포 사용)
+    public static ZipfDistribution givenNames() {
+        return new ZipfDistribution(GIVEN_NAMES.length, 1.0);
+    }
+
+    public static ZipfDistribution surnames() {
+        return new ZipfDistribution(SURNAMES.length, 1.0);
+    }
+
+    public static String givenName(int rank) {
+        return GIVEN_NAMES[rank];
+    }
+
+    public static String username(Random random, ZipfDistribution givenNames, ZipfDistribution surnames) {
+        String givenName = GIVEN_NAMES[givenNames.sample(random)];
+        double kind = random.nextDouble();
+        if (kind < 0.45) {
+            return givenName + (1 + random.nextInt(999));
+        } else if (kind < 0.8) {
+            return givenName + "." + SURNAMES[surnames.sample(random)];
+        }
+        return givenName;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public MemberLoadRow next() {
+        if (remaining <= 0) {
+            throw new NoSuchElementException();
+        }
+        remaining--;
+
+        Long teamId = teams == null || random.nextDouble() < noTeamRatio ? null : teamIds.get(teams.sample(random));
+        int age = (int) Math.max(15, Math.min(80, Math.round(35 + random.nextGaussian() * 12)));
+        return new MemberLoadRow(username(random, givenNames, surnames), age, teamId);
+    }
+}
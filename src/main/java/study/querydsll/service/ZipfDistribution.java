@@ -0,0 +1,47 @@
+package study.querydsll.service;
+
+import java.util.Random;
+
+/**
+ * Zipf 분포 샘플러 (순위 0 ~ n-1, 순위 k 의 확률 ∝ 1 / (k + 1)^exponent)
+ * 누적 확률 표를 미리 만들고 이진 탐색으로 샘플링
+ * 팀 크기 / 이름 인기도처럼 소수의 값에 쏠리는 분포 생성용
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n 은 1 이상이어야 합니다. n=" + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsll.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청(컨트롤러 메서드) / 테스트 메서드당 허용 SQL statement 수
+ * 컨트롤러 : 초과 시 경고 로그 + sql.statement.budget.violations 메트릭 (SqlStatementBudgetInterceptor)
+ * 테스트 : 초과 시 테스트 실패 (SqlStatementBudgetExtension)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlStatementBudget {
+
+    int value();
+}
@@ -0,0 +1,58 @@
+package study.querydsll.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * HTTP 요청당 SQL 실행 횟수 / JDBC 시간 집계 및 @SqlStatementBudget 위반 보고
+ * (요청 스레드에서 실행된 statement 만 집계. 동시 카운트 쿼리 등 다른 스레드의 쿼리는 제외)
+ */
+@Slf4j
+@Component
+public class SqlStatementBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String SCOPE = SqlStatementBudgetInterceptor.class.getName() + ".SCOPE";
+
+    private final MeterRegistry registry;
+
+    public SqlStatementBudgetInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(SCOPE, SqlStatementCounter.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.Scope scope = (SqlStatementCounter.Scope) request.getAttribute(SCOPE);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+
+        log.debug("{} {} sql statements = {}, jdbc time = {}ms",
+                request.getMethod(), request.getRequestURI(), scope.getStatements(), scope.getJdbcMillis());
+
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        SqlStatementBudget budget = ((HandlerMethod) handler).getMethodAnnotation(SqlStatementBudget.class);
+        if (budget != null && scope.getStatements() > budget.value()) {
+            log.warn("sql statement budget exceeded. {} {} statements = {}, budget = {}, jdbc time = {}ms",
+                    request.getMethod(), request.getRequestURI(), scope.getStatements(), budget.value(), scope.getJdbcMillis());
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            registry.counter("sql.statement.budget.violations",
+                    "uri", pattern != null ? pattern.toString() : "UNKNOWN").increment();
+        }
+    }
+}
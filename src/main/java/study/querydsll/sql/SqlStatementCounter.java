@@ -0,0 +1,54 @@
+package study.querydsll.sql;
+
+/**
+ * 스레드별 SQL 실행 횟수 / JDBC 시간 집계
+ * start() 로 범위를 열면 해당 스레드에서 실행된 statement 가 범위에 누적됨 (범위 중첩 가능)
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope start() {
+        Scope scope = new Scope(current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    static void record(long elapsedNanos) {
+        for (Scope scope = current.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.elapsedNanos += elapsedNanos;
+        }
+    }
+
+    public static class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private int statements;
+        private long elapsedNanos;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getJdbcMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                current.remove();
+            } else {
+                current.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package study.querydsll.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트 리스너 (p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동 등록)
+ * 실행된 statement (배치 포함) 마다 현재 스레드의 SqlStatementCounter 범위에 누적
+ */
+@Component
+public class SqlStatementCountingListener extends JdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlStatementCounter.record(timeElapsedNanos);
+    }
+}
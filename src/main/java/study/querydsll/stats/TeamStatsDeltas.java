@@ -0,0 +1,176 @@
+package study.querydsll.stats;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 한 트랜잭션(세션) 동안 누적된 팀 통계 변경분
+ * 커밋 직전(flush 이후) 같은 커넥션으로 team_stats 에 팀당 한번씩 반영
+ * 행 생성은 표준 SQL insert 후 기본키 충돌 시 savepoint 로 되돌리고 update 로 재시도
+ * (동시에 실행된 재계산(TeamStatsRepairJob)이 먼저 행을 만든 경우, DB 별 upsert 문법에 의존하지 않음)
+ */
+class TeamStatsDeltas implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    private final Set<Long> createdTeams = new LinkedHashSet<>();
+    private final Set<Long> deletedTeams = new LinkedHashSet<>();
+    private final Map<Long, Delta> deltas = new LinkedHashMap<>();
+    private final Consumer<SharedSessionContractImplementor> onComplete;
+
+    TeamStatsDeltas(Consumer<SharedSessionContractImplementor> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    void teamCreated(Long teamId) {
+        createdTeams.add(teamId);
+    }
+
+    void teamDeleted(Long teamId) {
+        deletedTeams.add(teamId);
+    }
+
+    void memberAdded(Long teamId, int age) {
+        delta(teamId).add(age);
+    }
+
+    void memberRemoved(Long teamId, int age) {
+        delta(teamId).remove(age);
+    }
+
+    // 변경 전 상태를 알 수 없는 경우 해당 팀 전체 재계산
+    void recompute(Long teamId) {
+        delta(teamId).recompute = true;
+    }
+
+    private Delta delta(Long teamId) {
+        return deltas.computeIfAbsent(teamId, key -> new Delta());
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        session.doWork(this::apply);
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+        onComplete.accept(session);
+    }
+
+    private void apply(Connection connection) throws SQLException {
+        for (Long teamId : createdTeams) {
+            // 재계산이 먼저 만든 행이 있으면 그대로 둠 (해당 팀 회원 변경은 아래 delta 로 반영)
+            insertIfAbsent(connection, "insert into team_stats (team_id, member_count, age_sum) values (?, 0, 0)", teamId);
+        }
+        for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+            Long teamId = entry.getKey();
+            if (!deletedTeams.contains(teamId) && entry.getValue().apply(connection, teamId) == 0) {
+                // 통계 행이 없는 팀 (통계 도입 이전 팀 등) -> 집계로 생성
+                boolean inserted = insertIfAbsent(connection, "insert into team_stats (team_id, member_count, age_sum, min_age, max_age)"
+                        + " select ?, count(*), coalesce(sum(age), 0), min(age), max(age) from member where team_id = ?",
+                        teamId, teamId);
+                if (!inserted) {
+                    // 그 사이 재계산이 커밋된 데이터로 행을 만듦 -> 이 트랜잭션의 변경을 포함해 다시 집계
+                    recomputeRow(connection, teamId);
+                }
+            }
+        }
+        for (Long teamId : deletedTeams) {
+            update(connection, "delete from team_stats where team_id = ?", teamId);
+        }
+    }
+
+    /**
+     * insert 후 기본키 충돌이면 savepoint 로 되돌리고 false
+     * (PostgreSQL 등은 오류가 난 문장 이후 트랜잭션 전체가 실패 상태가 되므로 savepoint 필요)
+     */
+    private static boolean insertIfAbsent(Connection connection, String sql, Object... params) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            update(connection, sql, params);
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    // 표준 SQLSTATE 23505 (H2, PostgreSQL 등), MySQL 은 SQLSTATE 23000 + 오류 코드 1062
+    private static boolean isDuplicateKey(SQLException e) {
+        return "23505".equals(e.getSQLState()) || e.getErrorCode() == 1062;
+    }
+
+    private static int recomputeRow(Connection connection, Long teamId) throws SQLException {
+        return update(connection, "update team_stats set"
+                + " member_count = (select count(*) from member where team_id = ?),"
+                + " age_sum = (select coalesce(sum(age), 0) from member where team_id = ?),"
+                + " min_age = (select min(age) from member where team_id = ?),"
+                + " max_age = (select max(age) from member where team_id = ?)"
+                + " where team_id = ?", teamId, teamId, teamId, teamId, teamId);
+    }
+
+    private static int update(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private static class Delta {
+
+        private long count;
+        private long ageSum;
+        private Integer minAdded;
+        private Integer maxAdded;
+        private boolean removed;
+        private boolean recompute;
+
+        private void add(int age) {
+            count++;
+            ageSum += age;
+            minAdded = minAdded == null ? age : Math.min(minAdded, age);
+            maxAdded = maxAdded == null ? age : Math.max(maxAdded, age);
+        }
+
+        private void remove(int age) {
+            count--;
+            ageSum -= age;
+            removed = true;
+        }
+
+        private int apply(Connection connection, Long teamId) throws SQLException {
+            if (recompute) {
+                return recomputeRow(connection, teamId);
+            }
+            if (removed) {
+                // 빠진 나이가 최소 / 최대였을 수 있으므로 (team_id, age) 인덱스로 다시 구함
+                return update(connection, "update team_stats set"
+                        + " member_count = member_count + ?, age_sum = age_sum + ?,"
+                        + " min_age = (select min(age) from member where team_id = ?),"
+                        + " max_age = (select max(age) from member where team_id = ?)"
+                        + " where team_id = ?", count, ageSum, teamId, teamId, teamId);
+            }
+            return update(connection, "update team_stats set"
+                    + " member_count = member_count + ?, age_sum = age_sum + ?,"
+                    + " min_age = case when min_age is null or min_age > ? then ? else min_age end,"
+                    + " max_age = case when max_age is null or max_age < ? then ? else max_age end"
+                    + " where team_id = ?", count, ageSum, minAdded, minAdded, maxAdded, maxAdded, teamId);
+        }
+    }
+}
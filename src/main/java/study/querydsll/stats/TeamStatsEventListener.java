@@ -0,0 +1,120 @@
+package study.querydsll.stats;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 팀 통계(team_stats) 갱신용 Hibernate 이벤트 리스너
+ * JPA 콜백(@PostPersist 등)에서는 쿼리를 실행할 수 없고 변경 전 상태도 알 수 없으므로 Hibernate 이벤트 사용
+ * 이벤트마다 바로 쓰지 않고 세션별로 변경분을 모아 커밋 직전에 팀당 한번 반영 (TeamStatsDeltas)
+ */
+public class TeamStatsEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final Map<SharedSessionContractImplementor, TeamStatsDeltas> deltasBySession = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            Long teamId = teamIdOf(member.getTeam());
+            if (teamId != null) {
+                deltasOf(event.getSession()).memberAdded(teamId, member.getAge());
+            }
+        } else if (entity instanceof Team) {
+            deltasOf(event.getSession()).teamCreated(((Team) entity).getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        int teamIndex = persister.getEntityMetamodel().getPropertyIndex("team");
+        int ageIndex = persister.getEntityMetamodel().getPropertyIndex("age");
+
+        Long newTeamId = teamIdOf(event.getState()[teamIndex]);
+        int newAge = (Integer) event.getState()[ageIndex];
+
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            if (newTeamId != null) {
+                deltasOf(event.getSession()).recompute(newTeamId);
+            }
+            return;
+        }
+
+        Long oldTeamId = teamIdOf(oldState[teamIndex]);
+        int oldAge = (Integer) oldState[ageIndex];
+        if (Objects.equals(oldTeamId, newTeamId) && oldAge == newAge) {
+            return;
+        }
+
+        TeamStatsDeltas deltas = deltasOf(event.getSession());
+        if (oldTeamId != null) {
+            deltas.memberRemoved(oldTeamId, oldAge);
+        }
+        if (newTeamId != null) {
+            deltas.memberAdded(newTeamId, newAge);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Member) {
+            int teamIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("team");
+            int ageIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("age");
+            Long teamId = teamIdOf(event.getDeletedState()[teamIndex]);
+            if (teamId != null) {
+                deltasOf(event.getSession()).memberRemoved(teamId, (Integer) event.getDeletedState()[ageIndex]);
+            }
+        } else if (entity instanceof Team) {
+            deltasOf(event.getSession()).teamDeleted((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    // 세션(트랜잭션)당 하나의 변경분 누적 객체를 커밋 전후 처리로 등록
+    private TeamStatsDeltas deltasOf(EventSource session) {
+        return deltasBySession.computeIfAbsent(session, key -> {
+            TeamStatsDeltas deltas = new TeamStatsDeltas(deltasBySession::remove);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) deltas);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) deltas);
+            return deltas;
+        });
+    }
+
+    // 프록시는 초기화하지 않고 식별자만 꺼냄
+    private static Long teamIdOf(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+}
@@ -0,0 +1,87 @@
+package study.querydsll.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 팀 통계 재계산 작업
+ * 벌크 연산(JPQL update / delete)은 Hibernate 이벤트를 거치지 않으므로 markDirty() 로 표시해두고
+ * 주기적으로 member 전체 집계로 team_stats 를 다시 만듦 (애플리케이션 시작 시 한번 실행)
+ * 전체 삭제 후 다시 넣으면 그 사이 커밋되는 증분 반영(TeamStatsDeltas)의 update 가 0건이 되고
+ * 대체 insert 가 기본키 충돌로 사용자 트랜잭션을 실패시키므로, 행 단위로 갱신 / 없는 팀만 insert 후 없어진 팀의 행만 삭제
+ * DB 별 upsert 문법 대신 표준 SQL (update -> insert ... where not exists) 을 사용하고,
+ * insert 사이에 증분 반영이 같은 팀 행을 먼저 만들어 기본키 충돌이 나면 트랜잭션을 새로 시작해 재시도
+ */
+@Slf4j
+@Component
+public class TeamStatsRepairJob {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public TeamStatsRepairJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        repair();
+    }
+
+    @Scheduled(fixedDelayString = "${member.team-stats.repair-interval:PT1M}")
+    public void repairIfDirty() {
+        if (dirty.getAndSet(false)) {
+            repair();
+        }
+    }
+
+    public void repair() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> repairRows());
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("team stats row created concurrently. retry repair. attempt = {}", attempt);
+            }
+        }
+    }
+
+    private void repairRows() {
+        int updated = jdbcTemplate.update("update team_stats s set"
+                + " member_count = (select count(*) from member m where m.team_id = s.team_id),"
+                + " age_sum = (select coalesce(sum(m.age), 0) from member m where m.team_id = s.team_id),"
+                + " min_age = (select min(m.age) from member m where m.team_id = s.team_id),"
+                + " max_age = (select max(m.age) from member m where m.team_id = s.team_id)");
+        int inserted = jdbcTemplate.update("insert into team_stats (team_id, member_count, age_sum, min_age, max_age)"
+                + " select t.team_id, count(m.member_id), coalesce(sum(m.age), 0), min(m.age), max(m.age)"
+                + " from team t left join member m on m.team_id = t.team_id"
+                + " where not exists (select 1 from team_stats s where s.team_id = t.team_id)"
+                + " group by t.team_id");
+        jdbcTemplate.update("delete from team_stats where team_id not in (select team_id from team)");
+        log.info("team stats repaired. updated = {}, inserted = {}", updated, inserted);
+    }
+}
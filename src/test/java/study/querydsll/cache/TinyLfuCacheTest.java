@@ -0,0 +1,55 @@
+package study.querydsll.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TinyLfuCacheTest {
+
+    @Test
+    void frequentKeysSurviveScan() {
+
+        TinyLfuCache<Long, String> cache = new TinyLfuCache<>(100);
+
+        for (long key = 0; key < 10; key++) {
+            cache.put(key, "hot" + key);
+        }
+        for (int i = 0; i < 10; i++) {
+            for (long key = 0; key < 10; key++) {
+                cache.get(key);
+            }
+        }
+
+        // 한번씩만 조회되는 키가 대량으로 들어와도 자주 쓰는 키는 밀려나지 않음
+        for (long key = 1000; key < 3000; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, "cold" + key);
+            }
+        }
+
+        for (long key = 0; key < 10; key++) {
+            assertThat(cache.get(key)).isEqualTo("hot" + key);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.evictionCount()).isGreaterThan(0);
+        assertThat(cache.hitCount()).isGreaterThanOrEqualTo(110);
+        assertThat(cache.missCount()).isEqualTo(2000);
+        assertThat(cache.hotKeys(10)).extracting("key")
+                .containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    void invalidate() {
+
+        TinyLfuCache<Long, String> cache = new TinyLfuCache<>(10);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+
+        cache.invalidate(1L);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isEqualTo("b");
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+}
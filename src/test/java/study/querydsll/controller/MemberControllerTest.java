@@ -0,0 +1,62 @@
+package study.querydsll.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+
+import javax.persistence.EntityManager;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void memberTest() throws Exception {
+
+        Team team = new Team("teamA");
+        em.persist(team);
+        Member member = new Member("member1", 10, team);
+        em.persist(member);
+
+        mockMvc.perform(get("/members/{memberId}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("member1"))
+                .andExpect(jsonPath("$.teamName").value("teamA"));
+
+        // 없는 회원 -> 404
+        mockMvc.perform(get("/members/{memberId}", member.getId() + 1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchMemberV4Test() throws Exception {
+
+        // 잘못된 커서 -> 400
+        mockMvc.perform(get("/v4/members").param("cursor", "not-a-cursor!"))
+                .andExpect(status().isBadRequest());
+
+        // size 보정
+        mockMvc.perform(get("/v4/members").param("size", "-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1));
+        mockMvc.perform(get("/v4/members").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(100));
+    }
+}
@@ -0,0 +1,74 @@
+package study.querydsll.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 두 H2 인메모리 인스턴스 (primary / replica) 로 라우팅 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    @Test
+    void routeReadOnlyToReplica() {
+
+        DataSource primary = node("primary");
+        DataSource replica = node("replica");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        assertThat(nodeName(transactionManager, jdbcTemplate, false)).isEqualTo("primary");
+        assertThat(nodeName(transactionManager, jdbcTemplate, true)).isEqualTo("replica");
+        // 트랜잭션 종료 후 커넥션 반납
+        assertThat(routing.inFlight(0)).isEqualTo(0);
+    }
+
+    @Test
+    void fallbackWhenReplicaUnavailable() {
+
+        DataSource primary = node("primary2");
+        DataSource down = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/nowhere", "sa", "");
+        DataSource replica = node("replica2");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, Arrays.asList(down, replica), Duration.ofMinutes(1));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(nodeName(transactionManager, jdbcTemplate, true)).isEqualTo("replica2");
+        }
+
+        // 레플리카가 모두 내려가면 프라이머리로 대체
+        ReplicaRoutingDataSource allDown = new ReplicaRoutingDataSource(primary, List.of(down), Duration.ofMinutes(1));
+        JdbcTemplate allDownTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(allDown));
+        assertThat(nodeName(new DataSourceTransactionManager(allDownTemplate.getDataSource()), allDownTemplate, true))
+                .isEqualTo("primary2");
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.execute("delete from node");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static String nodeName(DataSourceTransactionManager transactionManager, JdbcTemplate jdbcTemplate, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+}
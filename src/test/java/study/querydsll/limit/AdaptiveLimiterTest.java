@@ -0,0 +1,52 @@
+package study.querydsll.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void limitFollowsLatency() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(Duration.ofSeconds(1), 4, 1, 50);
+
+        // 지연 시간이 일정하면 limit 증가
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(10 * MILLIS, limiter.getLimit());
+        }
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(4);
+
+        // 지연 시간이 평소보다 크게 늘면 limit 감소
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(100 * MILLIS, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    @Test
+    void shedWhenQueueWouldBreachSlo() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter(Duration.ofMillis(100), 1, 1, 1);
+        limiter.onSample(150 * MILLIS, 1);
+
+        AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        assertThat(permit).isNotNull();
+
+        // 실행 시간만으로 SLO 초과 -> 대기 없이 즉시 거절
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire()).isNull();
+        assertThat(System.nanoTime() - start).isLessThan(50 * MILLIS);
+        assertThat(limiter.retryAfter()).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+
+        permit.release();
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+}
@@ -0,0 +1,69 @@
+package study.querydsll.limit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.persistence.Query;
+import javax.persistence.QueryTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class QueryDeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        QueryDeadline.clear();
+    }
+
+    @Test
+    void timeoutHintTest() {
+
+        // deadline 이 없으면 힌트 없음
+        Query query = mock(Query.class);
+        QueryDeadline.apply(query);
+        verify(query, never()).setHint(anyString(), any());
+
+        // 남은 시간은 초 단위 올림 (1.2s -> 2000ms)
+        QueryDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1200));
+        QueryDeadline.apply(query);
+        verify(query).setHint(QueryDeadline.TIMEOUT_HINT, 2000);
+
+        // 이미 지났으면 실행하지 않음
+        QueryDeadline.set(System.nanoTime() - 1);
+        assertThatThrownBy(() -> QueryDeadline.apply(mock(Query.class))).isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    void callWithTest() {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        assertThat(QueryDeadline.callWith(deadline, QueryDeadline::current)).isEqualTo(deadline);
+        assertThat(QueryDeadline.current()).isNull();
+    }
+
+    @Test
+    void endpointDeadlineTest() {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("member.request-deadline.endpoints.v3", "2s");
+        RequestDeadlineInterceptor interceptor = new RequestDeadlineInterceptor(environment, Duration.ofSeconds(5), Duration.ofSeconds(10));
+
+        assertThat(interceptor.deadlineOf("v3", null)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(interceptor.deadlineOf("v1", null)).isEqualTo(Duration.ofSeconds(5));
+
+        // 헤더로 변경 (단위 없으면 밀리초), 최대값 제한, 잘못된 값은 무시
+        assertThat(interceptor.deadlineOf("v3", "800ms")).isEqualTo(Duration.ofMillis(800));
+        assertThat(interceptor.deadlineOf("v3", "1500")).isEqualTo(Duration.ofMillis(1500));
+        assertThat(interceptor.deadlineOf("v3", "1m")).isEqualTo(Duration.ofSeconds(10));
+        assertThat(interceptor.deadlineOf("v3", "soon")).isEqualTo(Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,51 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AfterTransactionCompletionTest {
+
+    private final DataSourceTransactionManager transactionManager =
+            new DataSourceTransactionManager(new DriverManagerDataSource("jdbc:h2:mem:after-transaction-completion"));
+
+    @Test
+    void requiresNewTest() {
+
+        Object key = new Object();
+        List<String> applied = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            AfterTransactionCompletion.onCommit(key, "outer", applied::add);
+            AfterTransactionCompletion.runOnce(this, () -> completed.add("outer"));
+
+            // 내부 트랜잭션은 외부의 변경 목록 / 등록 표시를 보지 않고 자기 종료 시점에 따로 처리
+            inner.executeWithoutResult(innerStatus -> {
+                assertThat(AfterTransactionCompletion.hasPending(key)).isFalse();
+                AfterTransactionCompletion.onCommit(key, "inner", applied::add);
+                AfterTransactionCompletion.runOnce(this, () -> completed.add("inner"));
+            });
+            assertThat(applied).containsExactly("inner");
+            assertThat(completed).containsExactly("inner");
+
+            // 재개 후 외부 변경 목록에 이어서 추가
+            assertThat(AfterTransactionCompletion.hasPending(key)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        // 외부 롤백 -> 외부 변경만 버림
+        assertThat(applied).containsExactly("inner");
+        assertThat(completed).containsExactly("inner", "outer");
+    }
+}
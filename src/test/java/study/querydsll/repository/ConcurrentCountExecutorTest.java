@@ -0,0 +1,184 @@
+package study.querydsll.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsll.limit.QueryDeadline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.QueryTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrentCountExecutorTest {
+
+    private final EntityManager em = mock(EntityManager.class);
+    private final Session session = mock(Session.class);
+    private ConcurrentCountExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    private ConcurrentCountExecutor executor(int threads, int queueSize, Duration waitTimeout) {
+        when(em.unwrap(Session.class)).thenReturn(session);
+        executor = new ConcurrentCountExecutor(em, mock(PlatformTransactionManager.class), true, threads, queueSize, waitTimeout);
+        return executor;
+    }
+
+    @Test
+    void joinTest() {
+
+        ConcurrentCountExecutor.PendingCount pending = executor(1, 1, Duration.ofSeconds(5)).submit(() -> 42L);
+
+        assertThat(pending.join()).isEqualTo(42L);
+    }
+
+    @Test
+    void slowCountTest() {
+
+        // wait-timeout 보다 오래 걸려도 이미 시작한 카운트는 끝까지 기다림 (다시 실행하지 않음)
+        ConcurrentCountExecutor.PendingCount pending = executor(1, 1, Duration.ofMillis(50)).submit(() -> {
+            sleep(300);
+            return 1L;
+        });
+
+        assertThat(pending.join()).isEqualTo(1L);
+    }
+
+    @Test
+    void notStartedTest() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        ConcurrentCountExecutor executor = executor(1, 1, Duration.ofMillis(50));
+
+        executor.submit(() -> {
+            await(release);
+            return 1L;
+        });
+        ConcurrentCountExecutor.PendingCount queued = executor.submit(() -> {
+            queuedRan.set(true);
+            return 2L;
+        });
+
+        // wait-timeout 안에 시작하지 못함 -> 취소 후 null (호출자가 순차 실행)
+        assertThat(queued.join()).isNull();
+        release.countDown();
+        assertThat(queuedRan).isFalse();
+    }
+
+    @Test
+    void deadlineTest() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentCountExecutor.PendingCount pending = executor(1, 1, Duration.ofMillis(50)).submit(() -> {
+            await(release);
+            return 1L;
+        });
+
+        // 시작한 카운트도 요청 deadline 이 지나면 취소 후 QueryTimeoutException
+        QueryDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200));
+        try {
+            assertThatThrownBy(pending::join).isInstanceOf(QueryTimeoutException.class);
+            verify(session, timeout(1000)).cancelQuery();
+        } finally {
+            QueryDeadline.clear();
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectTest() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentCountExecutor executor = executor(1, 1, Duration.ofSeconds(5));
+
+        ConcurrentCountExecutor.PendingCount running = executor.submit(() -> {
+            await(release);
+            return 1L;
+        });
+        ConcurrentCountExecutor.PendingCount queued = executor.submit(() -> 2L);
+
+        // 스레드 + 큐가 가득 차면 null (호출자가 순차 실행)
+        assertThat(executor.submit(() -> 3L)).isNull();
+
+        release.countDown();
+        assertThat(running.join()).isEqualTo(1L);
+        assertThat(queued.join()).isEqualTo(2L);
+    }
+
+    @Test
+    void cancelBeforeStartTest() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        ConcurrentCountExecutor executor = executor(1, 2, Duration.ofSeconds(5));
+
+        executor.submit(() -> {
+            await(release);
+            return 1L;
+        });
+        ConcurrentCountExecutor.PendingCount queued = executor.submit(() -> {
+            queuedRan.set(true);
+            return 2L;
+        });
+        executor.submit(() -> {
+            done.countDown();
+            return 3L;
+        });
+
+        // 시작 전 취소 -> 실행하지 않음
+        queued.cancel();
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queuedRan).isFalse();
+    }
+
+    @Test
+    void cancelRunningTest() throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentCountExecutor.PendingCount pending = executor(1, 1, Duration.ofSeconds(5)).submit(() -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        });
+
+        // 실행 중 취소 -> 세션의 쿼리 취소
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        pending.cancel();
+        verify(session, timeout(1000)).cancelQuery();
+        release.countDown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
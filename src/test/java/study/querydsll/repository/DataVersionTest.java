@@ -0,0 +1,39 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import study.querydsll.dto.MemberSearchCond;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionTest {
+
+    @Test
+    void etagByVersionAndCondition() {
+
+        DataVersion dataVersion = new DataVersion();
+        MemberSearchCond condition = new MemberSearchCond("", "teamA", 10, null);
+
+        String etag = dataVersion.memberSearchETag("v2", condition, PageRequest.of(0, 20));
+
+        // 빈 문자열 조건은 null 과 같은 태그
+        assertThat(dataVersion.memberSearchETag("v2", new MemberSearchCond(null, "teamA", 10, null), PageRequest.of(0, 20)))
+                .isEqualTo(etag);
+        assertThat(dataVersion.memberSearchETag("v2", condition, PageRequest.of(1, 20))).isNotEqualTo(etag);
+        assertThat(dataVersion.memberSearchETag("v3", condition, PageRequest.of(0, 20))).isNotEqualTo(etag);
+
+        dataVersion.bump();
+
+        assertThat(dataVersion.memberSearchETag("v2", condition, PageRequest.of(0, 20))).isNotEqualTo(etag);
+    }
+
+    @Test
+    void etagByEpoch() {
+
+        MemberSearchCond condition = new MemberSearchCond(null, "teamA", 10, null);
+
+        // 재시작 (새 인스턴스) 후 같은 버전 값이어도 다른 태그
+        assertThat(new DataVersion().memberSearchETag("v2", condition, PageRequest.of(0, 20)))
+                .isNotEqualTo(new DataVersion().memberSearchETag("v2", condition, PageRequest.of(0, 20)));
+    }
+}
@@ -0,0 +1,50 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InClauseChunksTest {
+
+    @Test
+    void chunkAndPad() {
+
+        List<Long> keys = LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+
+        List<List<Long>> chunks = InClauseChunks.of(keys, 512);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).hasSize(512);
+        // 488건 -> 512 로 패딩 (마지막 키 반복)
+        assertThat(chunks.get(1)).hasSize(512);
+        assertThat(chunks.get(1).subList(488, 512)).containsOnly(1000L);
+
+        assertThat(InClauseChunks.of(List.of(1L, 2L, 3L), 512).get(0)).containsExactly(1L, 2L, 3L, 3L);
+        assertThat(InClauseChunks.paddedSize(1)).isEqualTo(1);
+        assertThat(InClauseChunks.paddedSize(5)).isEqualTo(8);
+        assertThat(InClauseChunks.paddedSize(8)).isEqualTo(8);
+    }
+
+    @Test
+    void padWithoutChunking() {
+
+        List<Long> keys = LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+
+        // 후보 1000건 -> IN 절 하나에 1024 로 패딩
+        List<Long> padded = InClauseChunks.padded(keys);
+        assertThat(padded).hasSize(1024);
+        assertThat(padded.subList(1000, 1024)).containsOnly(1000L);
+        assertThat(InClauseChunks.padded(List.of(7L))).containsExactly(7L);
+        assertThat(InClauseChunks.padded(List.<Long>of())).isEmpty();
+    }
+
+    @Test
+    void distinctKeepsFirstOrder() {
+        assertThat(InClauseChunks.distinct(Arrays.asList(3L, null, 1L, 3L, 2L))).containsExactly(3L, 1L, 2L);
+    }
+}
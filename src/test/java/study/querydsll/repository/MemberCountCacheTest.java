@@ -0,0 +1,59 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.Test;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    @Test
+    void cacheByNormalizedCondition() {
+
+        MemberCountCache cache = new MemberCountCache(10, Duration.ofMinutes(1));
+        AtomicInteger queryCount = new AtomicInteger();
+
+        long first = cache.get(new MemberSearchCond("", "teamA", 10, null), () -> {
+            queryCount.incrementAndGet();
+            return 5L;
+        });
+        long second = cache.get(new MemberSearchCond(null, "teamA", 10, null), () -> {
+            queryCount.incrementAndGet();
+            return 7L;
+        });
+
+        assertThat(first).isEqualTo(5L);
+        assertThat(second).isEqualTo(5L);
+        assertThat(queryCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAndEvict() {
+
+        MemberCountCache cache = new MemberCountCache(2, Duration.ofMinutes(1));
+
+        cache.get(new MemberSearchCond("member1", null, null, null), () -> 1L);
+        cache.get(new MemberSearchCond("member2", null, null, null), () -> 1L);
+        cache.get(new MemberSearchCond("member3", null, null, null), () -> 1L);
+
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(new MemberSearchCond("member3", null, null, null), () -> 3L)).isEqualTo(3L);
+    }
+
+    @Test
+    void expireAfterTtl() {
+
+        MemberCountCache cache = new MemberCountCache(10, Duration.ZERO);
+
+        cache.get(new MemberSearchCond(null, null, null, null), () -> 1L);
+
+        assertThat(cache.get(new MemberSearchCond(null, null, null, null), () -> 2L)).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,101 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemberCountIndexTest {
+
+    JdbcTemplate jdbcTemplate;
+    MemberCountIndex countIndex;
+
+    @BeforeEach
+    void before() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:count_index;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop table if exists member");
+        jdbcTemplate.execute("create table member (member_id bigint primary key, team_id bigint, age int, username varchar(255))");
+        jdbcTemplate.update("insert into member values (1, 1, 10, 'member1'), (2, 1, 20, 'member2'),"
+                + " (3, 2, 30, 'member3'), (4, 2, 40, 'member4'), (5, null, 50, 'member5')");
+
+        TeamDictionary teamDictionary = mock(TeamDictionary.class);
+        when(teamDictionary.idsOf("teamA")).thenReturn(List.of(1L));
+        when(teamDictionary.idsOf("teamB")).thenReturn(List.of(2L));
+
+        countIndex = new MemberCountIndex(jdbcTemplate, teamDictionary, true);
+    }
+
+    @Test
+    void countByBitmaps() {
+
+        // 재구성 전에는 SQL 카운트로 대체
+        assertThat(countIndex.count(cond(null, null, null, null))).isNull();
+
+        countIndex.rebuild();
+
+        // 팀이 없는 회원은 제외 (템플릿 카운트와 동일)
+        assertThat(countIndex.count(cond(null, null, null, null))).isEqualTo(4L);
+        assertThat(countIndex.count(cond(null, "teamB", null, null))).isEqualTo(2L);
+        assertThat(countIndex.count(cond(null, "teamB", 35, null))).isEqualTo(1L);
+        assertThat(countIndex.count(cond(null, null, 20, 40))).isEqualTo(3L);
+        assertThat(countIndex.count(cond(null, "teamC", null, null))).isEqualTo(0L);
+
+        // username 조건은 SQL 카운트
+        assertThat(countIndex.count(cond("member2", "teamA", null, null))).isNull();
+    }
+
+    @Test
+    void skipInWriteTransaction() {
+
+        countIndex.rebuild();
+
+        // 쓰기 트랜잭션 안에서는 flush 전 변경이 반영되지 않으므로 SQL 카운트
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(countIndex.count(cond(null, null, null, null))).isNull();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(countIndex.count(cond(null, null, null, null))).isEqualTo(4L);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void maintainWrites() {
+
+        countIndex.rebuild();
+
+        // 트랜잭션 밖 쓰기는 즉시 반영
+        countIndex.onWrite(6L, 1L, 15);
+        countIndex.onWrite(1L, 2L, 12);
+        countIndex.onRemove(4L);
+
+        assertThat(countIndex.count(cond(null, "teamA", null, null))).isEqualTo(2L);
+        assertThat(countIndex.count(cond(null, "teamB", null, null))).isEqualTo(2L);
+        assertThat(countIndex.count(cond(null, null, 40, null))).isEqualTo(0L);
+        assertThat(countIndex.count(cond(null, null, null, 10))).isEqualTo(0L);
+        assertThat(countIndex.count(cond(null, null, 12, 12))).isEqualTo(1L);
+
+        // 팀 없던 회원의 팀 배정 / 인덱스에 없는 id 삭제
+        countIndex.onWrite(5L, 1L, 50);
+        countIndex.onRemove(99L);
+        assertThat(countIndex.count(cond(null, "teamA", null, null))).isEqualTo(3L);
+        assertThat(countIndex.count(cond(null, null, 50, 50))).isEqualTo(1L);
+
+        countIndex.markStale();
+        assertThat(countIndex.count(cond(null, null, null, null))).isNull();
+    }
+
+    private static MemberSearchCond cond(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        return new MemberSearchCond(username, teamName, ageGoe, ageLoe);
+    }
+}
@@ -3,7 +3,13 @@ package study.querydsll.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.dto.BulkOperationResult;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
 import study.querydsll.entity.Member;
@@ -12,6 +18,8 @@ import study.querydsll.entity.Team;
 import javax.persistence.EntityManager;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -28,6 +36,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    MemberSearchTemplates searchTemplates;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @Test
     void basicTest() {
 
@@ -91,4 +105,282 @@ class MemberJpaRepositoryTest {
         assertThat(builderResult).extracting("username").containsExactly("member4");
         assertThat(whereResult).extracting("teamName").containsExactly("teamB");
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkTest() {
+
+        memberJpaRepository.save(new Member("member1", 10));
+        memberJpaRepository.save(new Member("member2", 20));
+        memberJpaRepository.save(new Member("member3", 30));
+        memberJpaRepository.save(new Member("member4", 40));
+
+        long updateCount = memberJpaRepository.bulkAddAge(1, 29);
+        long deleteCount = memberJpaRepository.bulkDelete(40);
+
+        assertThat(updateCount).isEqualTo(2);
+        assertThat(deleteCount).isEqualTo(1);
+        assertThat(memberJpaRepository.findAll()).extracting("age").containsExactlyInAnyOrder(10, 20, 31);
+    }
+
+    @Test
+    void searchStreamTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+
+        MemberSearchCond condition = new MemberSearchCond(null, "teamA", 15, null);
+
+        List<MemberTeamDto> result;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, 1)) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member2", "member3");
+    }
+
+    @Test
+    void searchTemplateShapesTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        // 16가지 검색 조건 형태 모두 BooleanBuilder 방식과 결과 동일
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCond condition = new MemberSearchCond(
+                    (shape & 1) != 0 ? "member3" : null,
+                    (shape & 2) != 0 ? "teamB" : null,
+                    (shape & 4) != 0 ? 20 : null,
+                    (shape & 8) != 0 ? 35 : null);
+
+            assertThat(memberJpaRepository.search(condition))
+                    .extracting("memberId")
+                    .containsExactlyInAnyOrderElementsOf(
+                            memberJpaRepository.searchByBuilder(condition).stream()
+                                    .map(MemberTeamDto::getMemberId)
+                                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void usernameMatchTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("zq_x1", 10, teamA));
+        em.persist(new Member("zqax2", 20, teamA));
+        em.persist(new Member("yzq_x3", 30, teamA));
+
+        MemberSearchCond prefix = new MemberSearchCond("zq", null, null, null);
+        prefix.setUsernameMatch(MemberSearchCond.UsernameMatch.PREFIX);
+
+        // like 특수문자(_)는 이스케이프되어 문자 그대로 비교
+        MemberSearchCond contains = new MemberSearchCond("q_x", null, null, null);
+        contains.setUsernameMatch(MemberSearchCond.UsernameMatch.CONTAINS);
+
+        assertThat(memberJpaRepository.search(prefix)).extracting("username")
+                .containsExactlyInAnyOrder("zq_x1", "zqax2");
+        assertThat(memberJpaRepository.searchByBuilder(prefix)).extracting("username")
+                .containsExactlyInAnyOrder("zq_x1", "zqax2");
+        assertThat(memberJpaRepository.search(contains)).extracting("username")
+                .containsExactlyInAnyOrder("zq_x1", "yzq_x3");
+        assertThat(memberJpaRepository.searchByBuilder(contains)).extracting("username")
+                .containsExactlyInAnyOrder("zq_x1", "yzq_x3");
+    }
+
+    @Test
+    void findSnapshotByIdTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("member1", 10, teamA);
+        memberJpaRepository.save(member);
+
+        MemberTeamDto snapshot = memberJpaRepository.findSnapshotById(member.getId()).get();
+        assertThat(snapshot.getUsername()).isEqualTo("member1");
+        assertThat(snapshot.getTeamName()).isEqualTo("teamA");
+
+        // 읽기 / 쓰기 트랜잭션 안에서는 캐시를 거치지 않으므로 변경 즉시 반영
+        member.changeTeam(teamB);
+        em.flush();
+        assertThat(memberJpaRepository.findSnapshotById(member.getId()).get().getTeamName()).isEqualTo("teamB");
+    }
+
+    @Test
+    void deferredJoinPagingTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+
+        // 2단계 지연 조인도 같은 순서 / 같은 결과
+        MemberSearchCond condition = new MemberSearchCond(null, "teamA", 2, null);
+        for (int page = 0; page < 4; page++) {
+            PageRequest pageable = PageRequest.of(page, 3);
+            assertThat(searchTemplates.fetchDeferred(em, condition, pageable))
+                    .extracting("memberId")
+                    .containsExactlyElementsOf(searchTemplates.fetch(em, condition, pageable).stream()
+                            .map(MemberTeamDto::getMemberId)
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    // ========== Chunked Bulk ========== //
+    // 청크마다 별도 트랜잭션으로 커밋되므로 테스트 트랜잭션 밖에서 실행하고, 끝나면 엔티티 리스너를 거쳐 삭제
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void chunkedAddAgeTest() {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            List<Long> ids = saveCommitted(tx, 5);
+
+            // 5건을 2건씩 -> 2, 2, 1
+            BulkOperationResult result = memberJpaRepository.chunkedAddAge(
+                    new MemberSearchCond(null, "teamA", null, null), 1, 2);
+
+            assertThat(result.getAffectedRows()).isEqualTo(5);
+            assertThat(result.getChunks()).extracting("chunk").containsExactly(1, 2, 3);
+            assertThat(result.getChunks()).extracting("affectedRows").containsExactly(2L, 2L, 1L);
+            assertThat(result.getChunks()).extracting("firstId").containsExactly(ids.get(0), ids.get(2), ids.get(4));
+            assertThat(result.getChunks()).extracting("lastId").containsExactly(ids.get(1), ids.get(3), ids.get(4));
+            assertThat(agesOf(tx)).containsExactly(11, 21, 31, 41, 51);
+
+            // 조건에 맞는 회원이 없으면 청크 없음
+            BulkOperationResult empty = memberJpaRepository.chunkedAddAge(
+                    new MemberSearchCond(null, "teamA", 1000, null), 1, 2);
+            assertThat(empty.getAffectedRows()).isZero();
+            assertThat(empty.getChunks()).isEmpty();
+        } finally {
+            cleanUp(tx);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void chunkedUpdateUsernameAndDeleteTest() {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            saveCommitted(tx, 4);
+
+            // 4건을 2건씩 -> 청크 크기의 배수
+            BulkOperationResult update = memberJpaRepository.chunkedUpdateUsername(
+                    new MemberSearchCond(null, "teamA", 30, null), "renamed", 2);
+            assertThat(update.getChunks()).extracting("affectedRows").containsExactly(2L);
+            assertThat(tx.execute(status -> memberJpaRepository.findByUsername("renamed")))
+                    .extracting("age").containsExactlyInAnyOrder(30, 40);
+
+            // 4건을 3건씩 -> 3, 1
+            BulkOperationResult delete = memberJpaRepository.chunkedDelete(
+                    new MemberSearchCond(null, "teamA", null, null), 3);
+            assertThat(delete.getAffectedRows()).isEqualTo(4);
+            assertThat(delete.getChunks()).extracting("affectedRows").containsExactly(3L, 1L);
+            assertThat(agesOf(tx)).isEmpty();
+        } finally {
+            cleanUp(tx);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void chunkedCommitPerChunkTest() {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            List<Long> ids = saveCommitted(tx, 3);
+
+            tx.executeWithoutResult(status -> {
+                // 호출자 영속성 컨텍스트에 올라와 있던 엔티티는 청크 커밋 후 분리되어 다시 조회됨
+                Member before = em.find(Member.class, ids.get(0));
+                memberJpaRepository.chunkedAddAge(new MemberSearchCond(null, "teamA", null, null), 1, 2);
+
+                assertThat(em.contains(before)).isFalse();
+                assertThat(em.find(Member.class, ids.get(0)).getAge()).isEqualTo(11);
+                status.setRollbackOnly();
+            });
+
+            // 호출자 트랜잭션이 롤백되어도 청크는 각각 커밋됨
+            assertThat(agesOf(tx)).containsExactly(11, 21, 31);
+        } finally {
+            cleanUp(tx);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void chunkedWithoutTeamTest() {
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            saveCommitted(tx, 2);
+            tx.executeWithoutResult(status -> em.persist(new Member("noTeam", 30)));
+
+            // 팀 조건이 없으면 팀이 없는 회원도 대상
+            BulkOperationResult all = memberJpaRepository.chunkedAddAge(new MemberSearchCond(null, null, null, null), 1, 2);
+            assertThat(all.getAffectedRows()).isEqualTo(3);
+            assertThat(agesOf(tx)).containsExactly(11, 21, 31);
+
+            // 팀 조건이 있으면 해당 팀 회원만
+            BulkOperationResult teamA = memberJpaRepository.chunkedAddAge(
+                    new MemberSearchCond(null, "teamA", null, null), 1, 2);
+            assertThat(teamA.getAffectedRows()).isEqualTo(2);
+            assertThat(agesOf(tx)).containsExactly(12, 22, 31);
+        } finally {
+            cleanUp(tx);
+        }
+    }
+
+    @Test
+    void chunkSizeTest() {
+        assertThatThrownBy(() -> memberJpaRepository.chunkedDelete(new MemberSearchCond(null, null, null, null), 0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessageContaining("chunkSize");
+    }
+
+    // teamA 소속 회원 count 명 (나이 10, 20, ...) 커밋, id 오름차순 반환
+    private List<Long> saveCommitted(TransactionTemplate tx, int count) {
+        return tx.execute(status -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            return Stream.iterate(1, i -> i + 1).limit(count)
+                    .map(i -> {
+                        Member member = new Member("member" + i, i * 10, teamA);
+                        em.persist(member);
+                        return member.getId();
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private List<Integer> agesOf(TransactionTemplate tx) {
+        return tx.execute(status -> em.createQuery("select m.age from Member m order by m.id", Integer.class)
+                .getResultList());
+    }
+
+    private void cleanUp(TransactionTemplate tx) {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m", Member.class).getResultList().forEach(em::remove);
+            em.flush();
+            em.createQuery("select t from Team t", Team.class).getResultList().forEach(em::remove);
+        });
+    }
+}
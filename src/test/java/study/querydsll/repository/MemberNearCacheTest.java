@@ -0,0 +1,51 @@
+package study.querydsll.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import study.querydsll.dto.MemberTeamDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberNearCacheTest {
+
+    @Test
+    void cacheUntilExpired() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberNearCache cache = new MemberNearCache(registry, 100, 1, Duration.ofMinutes(1));
+        AtomicInteger loadCount = new AtomicInteger();
+
+        cache.get(1L, () -> load(loadCount));
+        cache.get(1L, () -> load(loadCount));
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(registry.get("member.near-cache.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reloadAfterTtl() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberNearCache cache = new MemberNearCache(registry, 100, 1, Duration.ZERO);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        cache.get(1L, () -> load(loadCount));
+        MemberTeamDto second = cache.get(1L, () -> load(loadCount));
+
+        // 만료 항목은 다시 적재하고 miss 로 집계
+        assertThat(loadCount.get()).isEqualTo(2);
+        assertThat(second.getUsername()).isEqualTo("member2");
+        assertThat(registry.get("member.near-cache.requests").tag("result", "hit").functionCounter().count())
+                .isZero();
+        assertThat(registry.get("member.near-cache.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    private MemberTeamDto load(AtomicInteger loadCount) {
+        return new MemberTeamDto(1L, "member" + loadCount.incrementAndGet(), 10, null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package study.querydsll.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsll.dto.MemberSearchCond;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberQueryMetricsTest {
+
+    @Test
+    void recordLatencyAndRows() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberQueryMetrics metrics = new MemberQueryMetrics(registry);
+        MemberSearchCond condition = new MemberSearchCond(null, "teamA", 10, null);
+
+        metrics.list("MemberRepository.search", condition, () -> List.of(1, 2, 3));
+
+        assertThat(registry.get("member.repository.query")
+                .tag("method", "MemberRepository.search")
+                .tag("shape", "teamName,ageGoe")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("member.repository.rows")
+                .tag("shape", "teamName,ageGoe")
+                .summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void recordCountSkipped() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberQueryMetrics metrics = new MemberQueryMetrics(registry);
+        MemberSearchCond condition = new MemberSearchCond(null, null, null, null);
+
+        // 첫 페이지 + 페이지 크기보다 적은 컨텐츠 -> 카운트 생략
+        MemberQueryMetrics.CountProbe countQuery = metrics.countProbe("MemberRepository.searchPageComplex", condition, () -> 100L);
+        PageableExecutionUtils.getPage(List.of(1, 2), PageRequest.of(0, 10), countQuery);
+        countQuery.finish();
+
+        assertThat(registry.get("member.repository.count")
+                .tag("outcome", "skipped")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -1,25 +1,36 @@
 package study.querydsll.repository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.dto.CountMode;
+import study.querydsll.dto.CountedPage;
+import study.querydsll.dto.InvalidCursorException;
+import study.querydsll.dto.MemberCursorPage;
 import study.querydsll.dto.MemberSearchCond;
 import study.querydsll.dto.MemberTeamDto;
 import study.querydsll.entity.Member;
 import study.querydsll.entity.Team;
+import study.querydsll.limit.QueryDeadline;
 
 import javax.persistence.EntityManager;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Created by Hunseong on 2022/04/27
  */
-@SpringBootTest
+@SpringBootTest(properties = "member.count.cap=3")
 @Transactional
 class MemberRepositoryTest {
 
@@ -29,6 +40,9 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @Test
     void basicTest() {
 
@@ -73,4 +87,205 @@ class MemberRepositoryTest {
 
         assertThat(whereResult).extracting("teamName").containsExactly("teamB");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchUnflushedTeamTest() {
+
+        // flush 전 Team 도 teamName 조건으로 조회 (팀 사전에 없으면 team 테이블 조회)
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+        Member member = new Member("memberC", 10, teamC);
+        em.persist(member);
+
+        List<MemberTeamDto> result = memberRepository.search(new MemberSearchCond(null, "teamC", null, null));
+
+        assertThat(result).extracting("username").containsExactly("memberC");
+        assertThat(result).extracting("teamName").containsExactly("teamC");
+    }
+
+    @Test
+    void searchByCursorTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 20, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCond condition = new MemberSearchCond(null, null, 15, null);
+
+        MemberCursorPage first = memberRepository.searchByCursor(condition, null, 2);
+        MemberCursorPage second = memberRepository.searchByCursor(condition, first.getNextCursor(), 2);
+
+        assertThat(first.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("member4");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchByCursorSizeTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCond condition = new MemberSearchCond(null, null, null, null);
+
+        // 0 이하는 1건, 너무 크면 최대 크기로 보정 (size + 1 overflow 없음)
+        MemberCursorPage min = memberRepository.searchByCursor(condition, null, -1);
+        MemberCursorPage max = memberRepository.searchByCursor(condition, null, Integer.MAX_VALUE);
+
+        assertThat(min.getSize()).isEqualTo(1);
+        assertThat(min.getContent()).extracting("username").containsExactly("member1");
+        assertThat(min.isHasNext()).isTrue();
+        assertThat(max.getSize()).isEqualTo(100);
+        assertThat(max.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(max.isHasNext()).isFalse();
+    }
+
+    @Test
+    void searchByInvalidCursorTest() {
+
+        MemberSearchCond condition = new MemberSearchCond(null, null, null, null);
+
+        assertThatThrownBy(() -> memberRepository.searchByCursor(condition, "not-a-cursor!", 20))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void estimatedWithoutStatsTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+
+        // 팀 통계 행은 커밋 직전에 반영되므로 아직 없음 -> 0 으로 추정하지 않고 CAPPED 카운트
+        CountedPage<MemberTeamDto> page = memberRepository.searchPageSimple(
+                new MemberSearchCond(null, "teamA", null, null), PageRequest.of(0, 1), CountMode.ESTIMATED);
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void countOutcomeTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+
+        MemberSearchCond condition = new MemberSearchCond(null, "teamA", null, null);
+        double executed = countOutcome("executed");
+        double skipped = countOutcome("skipped");
+
+        // 두번째는 카운트 캐시로 응답 -> SQL 미실행
+        memberRepository.searchPageSimple(condition, PageRequest.of(0, 1), CountMode.EXACT);
+        memberRepository.searchPageSimple(condition, PageRequest.of(0, 1), CountMode.EXACT);
+
+        assertThat(countOutcome("executed") - executed).isEqualTo(1);
+        assertThat(countOutcome("skipped") - skipped).isEqualTo(1);
+    }
+
+    private double countOutcome(String outcome) {
+        Counter counter = meterRegistry.find("member.repository.count")
+                .tags("method", "MemberRepository.searchPageSimple", "shape", "teamName", "outcome", outcome)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void findAllByKeysTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamA);
+        Member member4 = new Member("member2", 40, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        // 입력 순서대로, 중복 / 없는 키 제외
+        List<Member> byIds = memberRepository.findAllByIds(
+                Arrays.asList(member3.getId(), -1L, member1.getId(), member3.getId(), member2.getId()));
+        assertThat(byIds).containsExactly(member3, member1, member2);
+
+        List<Member> byUsernames = memberRepository.findAllByUsernames(List.of("member3", "none", "member2"));
+        assertThat(byUsernames).containsExactly(member3, member2, member4);
+    }
+
+    @Test
+    void cappedCountTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, 10 + i, teamA));
+        }
+
+        MemberSearchCond condition = new MemberSearchCond(null, null, 10, null);
+        PageRequest pageable = PageRequest.of(0, 2);
+
+        // 상한(3) 초과 -> 하한 값 3
+        CountedPage<MemberTeamDto> capped = memberRepository.searchPageComplex(condition, pageable, CountMode.CAPPED);
+        assertThat(capped.getContent()).hasSize(2);
+        assertThat(capped.getTotalElements()).isEqualTo(3);
+        assertThat(capped.isTotalExact()).isFalse();
+
+        CountedPage<MemberTeamDto> simple = memberRepository.searchPageSimple(condition, pageable, CountMode.CAPPED);
+        assertThat(simple.getTotalElements()).isEqualTo(3);
+        assertThat(simple.isTotalExact()).isFalse();
+
+        CountedPage<MemberTeamDto> exact = memberRepository.searchPageComplex(condition, pageable, CountMode.EXACT);
+        assertThat(exact.getTotalElements()).isEqualTo(5);
+        assertThat(exact.isTotalExact()).isTrue();
+
+        // 캐시된 정확한 카운트가 있으면 그대로 사용
+        CountedPage<MemberTeamDto> cached = memberRepository.searchPageComplex(condition, pageable, CountMode.CAPPED);
+        assertThat(cached.getTotalElements()).isEqualTo(5);
+        assertThat(cached.isTotalExact()).isTrue();
+
+        // 상한 이하
+        CountedPage<MemberTeamDto> small = memberRepository.searchPageSimple(
+                new MemberSearchCond(null, "teamA", 13, null), pageable, CountMode.CAPPED);
+        assertThat(small.getTotalElements()).isEqualTo(2);
+        assertThat(small.isTotalExact()).isTrue();
+
+        // username like + 팀 IN 조건도 같은 상한 카운트 (네이티브 SQL)
+        MemberSearchCond prefix = new MemberSearchCond("member", "teamA", null, null);
+        prefix.setUsernameMatch(MemberSearchCond.UsernameMatch.PREFIX);
+        CountedPage<MemberTeamDto> like = memberRepository.searchPageSimple(prefix, pageable, CountMode.CAPPED);
+        assertThat(like.getTotalElements()).isEqualTo(3);
+        assertThat(like.isTotalExact()).isFalse();
+    }
+
+    @Test
+    void requestDeadlineTest() {
+
+        em.persist(new Member("member1", 10));
+        em.flush();
+
+        // deadline 이 지난 요청은 쿼리를 실행하지 않음
+        QueryDeadline.set(System.nanoTime() - 1);
+        try {
+            assertThatThrownBy(() -> memberRepository.searchPageComplex(new MemberSearchCond(null, null, null, null), PageRequest.of(0, 10)))
+                    .isInstanceOfAny(QueryTimeoutException.class, javax.persistence.QueryTimeoutException.class);
+        } finally {
+            QueryDeadline.clear();
+        }
+    }
+}
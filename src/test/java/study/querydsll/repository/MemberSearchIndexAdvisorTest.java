@@ -0,0 +1,65 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.Test;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.dto.MemberSearchCond.UsernameMatch;
+import study.querydsll.dto.SearchShapeAdvice;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchIndexAdvisorTest {
+
+    @Test
+    void advise() {
+
+        MemberSearchIndexAdvisor advisor = new MemberSearchIndexAdvisor(Duration.ofMillis(10));
+
+        // team_id 선두 인덱스(idx_member_team_age) 사용 가능
+        advisor.record(new MemberSearchCond(null, "teamA", 10, 20), Duration.ofMillis(100).toNanos());
+        // 조건 없음 -> 제안할 인덱스 없음
+        advisor.record(new MemberSearchCond(null, null, null, null), Duration.ofMillis(100).toNanos());
+
+        List<SearchShapeAdvice> advice = advisor.advise();
+
+        assertThat(advice).extracting("shape").containsExactly("(none)", "teamName,ageGoe,ageLoe");
+        assertThat(advice).extracting("usableIndex").containsExactly(null, "idx_member_team_age");
+        assertThat(advice).extracting("suggestedIndex").containsOnlyNulls();
+        assertThat(advice.get(1).getAvgMillis()).isEqualTo(100.0);
+    }
+
+    @Test
+    void equalityPrefixCoverage() {
+
+        MemberSearchIndexAdvisor advisor = new MemberSearchIndexAdvisor(Duration.ofMillis(10));
+        long slow = Duration.ofMillis(100).toNanos();
+
+        // username + team 동등 조건 -> 둘 다 선두에 있는 인덱스 없음 (idx_member_username 만으로는 부족)
+        advisor.record(new MemberSearchCond("member1", "teamA", null, null), slow);
+        // age 범위 조건만 -> age 선두 인덱스
+        advisor.record(new MemberSearchCond(null, null, 10, null), slow);
+        // username contains -> 인덱스 사용 불가, 범위 조건 age 만 고려
+        advisor.record(cond("member", UsernameMatch.CONTAINS, 10), slow);
+        // username contains 만 -> 사용 가능 인덱스 / 제안 모두 없음
+        advisor.record(cond("member", UsernameMatch.CONTAINS, null), slow);
+        // username prefix -> 범위 조건으로 username 인덱스 사용
+        advisor.record(cond("mem", UsernameMatch.PREFIX, null), slow);
+
+        List<SearchShapeAdvice> advice = advisor.advise();
+
+        assertThat(advice).extracting("shape").containsExactly(
+                "username(prefix)", "username(contains)", "username,teamName", "ageGoe", "username,ageGoe(contains)");
+        assertThat(advice).extracting("usableIndex").containsExactly(
+                "idx_member_username", null, null, "idx_member_age", "idx_member_age");
+        assertThat(advice).extracting("suggestedIndex").containsExactly(
+                null, null, "create index idx_member_username_team_id on member (username, team_id)", null, null);
+    }
+
+    private MemberSearchCond cond(String username, UsernameMatch match, Integer ageGoe) {
+        MemberSearchCond condition = new MemberSearchCond(username, null, ageGoe, null);
+        condition.setUsernameMatch(match);
+        return condition;
+    }
+}
@@ -0,0 +1,74 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsll.dto.TeamRosterDto;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+import study.querydsll.sql.SqlStatementBudget;
+import study.querydsll.sql.SqlStatementBudgetExtension;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(SqlStatementBudgetExtension.class)
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @BeforeEach
+    void before() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+
+        em.flush();
+        em.clear();
+    }
+
+    // 팀 페이지 조회 + 회원 in 쿼리 (회원 수와 무관, 카운트 쿼리 없음)
+    @Test
+    @SqlStatementBudget(2)
+    void findRostersTest() {
+
+        Slice<TeamRosterDto> result = teamRepository.findRosters(PageRequest.of(0, 2));
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamA", "teamB");
+        assertThat(result.getContent().get(0).getMembers()).extracting("name").containsExactly("member1", "member2");
+        assertThat(result.getContent().get(1).getMembers()).extracting("name").containsExactly("member3");
+    }
+
+    // 마지막 페이지 (size + 1 개를 조회했지만 다음 페이지 없음)
+    @Test
+    @SqlStatementBudget(2)
+    void findRostersLastPageTest() {
+
+        Slice<TeamRosterDto> result = teamRepository.findRosters(PageRequest.of(1, 2));
+
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamC");
+        assertThat(result.getContent().get(0).getMembers()).isEmpty();
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsll.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.entity.Member;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsll.dto.MemberSearchCond.UsernameMatch.CONTAINS;
+import static study.querydsll.dto.MemberSearchCond.UsernameMatch.PREFIX;
+
+/**
+ * 커밋된 변경만 정리 대상이 되므로 트랜잭션을 실제로 커밋하고, 끝나면 엔티티 리스너를 거쳐 삭제
+ */
+@SpringBootTest
+class UsernameIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UsernameIndex usernameIndex;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void before() {
+        tx = new TransactionTemplate(transactionManager);
+        usernameIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status ->
+                em.createQuery("select m from Member m", Member.class).getResultList().forEach(em::remove));
+        usernameIndex.refreshChanged();
+    }
+
+    @Test
+    void candidatesTest() {
+
+        Long[] ids = tx.execute(status -> {
+            Member member1 = new Member("alpha1", 10);
+            Member member2 = new Member("alphabet", 20);
+            Member member3 = new Member("delta", 30);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            return new Long[]{member1.getId(), member2.getId(), member3.getId()};
+        });
+
+        assertThat(usernameIndex.candidates("alp", PREFIX)).containsExactlyInAnyOrder(ids[0], ids[1]);
+        assertThat(usernameIndex.candidates("bet", CONTAINS)).containsExactly(ids[1]);
+        assertThat(usernameIndex.candidates("zzz", CONTAINS)).isEmpty();
+        // 3글자 미만 contains 는 트라이그램으로 좁힐 수 없음
+        assertThat(usernameIndex.candidates("al", CONTAINS)).isNull();
+    }
+
+    @Test
+    void refreshChangedTest() {
+
+        Long id = tx.execute(status -> {
+            Member member = new Member("gamma", 10);
+            em.persist(member);
+            return member.getId();
+        });
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, id)));
+
+        // 정리 전에는 삭제된 id 가 후보로 남음 (like 조건에서 걸러짐)
+        assertThat(usernameIndex.candidates("gam", PREFIX)).containsExactly(id);
+
+        // DB 의 현재 행 기준으로 정리
+        usernameIndex.refreshChanged();
+        assertThat(usernameIndex.candidates("gam", PREFIX)).isEmpty();
+    }
+}
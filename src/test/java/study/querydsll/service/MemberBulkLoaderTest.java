@@ -0,0 +1,81 @@
+package study.querydsll.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.dto.BulkLoadResult;
+import study.querydsll.dto.MemberLoadRow;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 청크마다 별도 트랜잭션으로 커밋되므로 테스트 트랜잭션 없이 실행하고, 끝나면 엔티티 리스너를 거쳐 삭제
+ */
+@SpringBootTest
+class MemberBulkLoaderTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberBulkLoader bulkLoader;
+
+    TransactionTemplate tx;
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m", Member.class).getResultList().forEach(em::remove);
+            em.flush();
+            em.createQuery("select t from Team t", Team.class).getResultList().forEach(em::remove);
+        });
+    }
+
+    @Test
+    void chunkTransactionTest() {
+
+        tx = new TransactionTemplate(transactionManager);
+        Long teamId = tx.execute(status -> {
+            Team team = new Team("teamA");
+            em.persist(team);
+            return team.getId();
+        });
+        List<MemberLoadRow> rows = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new MemberLoadRow("member" + i, i * 10, i % 2 == 0 ? null : teamId))
+                .collect(Collectors.toList());
+
+        tx.executeWithoutResult(status -> {
+            Team team = em.find(Team.class, teamId);
+
+            // 5건을 2건씩 -> 3청크
+            BulkLoadResult result = bulkLoader.load(rows.iterator(), 2, 1);
+            assertThat(result.getRows()).isEqualTo(5);
+            assertThat(result.getChunks()).isEqualTo(3);
+
+            // 청크의 clear 가 호출자 영속성 컨텍스트에 영향 없음
+            assertThat(em.contains(team)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        // 호출자 트랜잭션이 롤백되어도 청크는 각각 커밋됨
+        List<Member> members = tx.execute(status ->
+                em.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                        .getResultList());
+        assertThat(members).extracting("username")
+                .containsExactly("member1", "member2", "member3", "member4", "member5");
+        assertThat(members).filteredOn(member -> member.getTeam() != null).hasSize(3);
+    }
+}
@@ -0,0 +1,49 @@
+package study.querydsll.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import study.querydsll.dto.MemberSearchCond;
+import study.querydsll.dto.MemberTeamDto;
+import study.querydsll.repository.MemberJpaRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemberExportServiceTest {
+
+    @Test
+    void flushIntervalTest() throws Exception {
+
+        MemberJpaRepository repository = mock(MemberJpaRepository.class);
+        when(repository.searchStream(any(MemberSearchCond.class), anyInt())).thenReturn(IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new MemberTeamDto((long) i, "member" + i, i * 10, 1L, "teamA")));
+        MemberExportService exportService = new MemberExportService(repository, new ObjectMapper(), 100, 2);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long rows = exportService.export(new MemberSearchCond(null, null, null, null), out);
+
+        // 행마다가 아니라 첫 행 / 2행마다 / 마지막에만 응답 스트림 flush (1, 2, 4, 끝)
+        assertThat(rows).isEqualTo(5);
+        assertThat(out.flushes).isEqualTo(4);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(lines[0]).startsWith("{").contains("\"username\":\"member1\"");
+    }
+
+    private static class CountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package study.querydsll.service;
+
+import org.junit.jupiter.api.Test;
+import study.querydsll.dto.MemberLoadRow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticMemberDatasetTest {
+
+    @Test
+    void skewedTeamSizeTest() {
+
+        List<Long> teamIds = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        Map<Long, Integer> teamSizes = new HashMap<>();
+        int noTeam = 0;
+
+        SyntheticMemberDataset dataset = new SyntheticMemberDataset(10_000, teamIds, 1.1, 0.02, 42);
+        int rows = 0;
+        while (dataset.hasNext()) {
+            MemberLoadRow row = dataset.next();
+            rows++;
+            assertThat(row.getAge()).isBetween(15, 80);
+            assertThat(row.getUsername()).isNotBlank();
+            if (row.getTeamId() == null) {
+                noTeam++;
+            } else {
+                teamSizes.merge(row.getTeamId(), 1, Integer::sum);
+            }
+        }
+
+        // 첫 팀이 가장 크고 마지막 팀보다 훨씬 큼 (Zipf)
+        assertThat(rows).isEqualTo(10_000);
+        assertThat(teamSizes.get(1L)).isGreaterThan(teamSizes.get(2L));
+        assertThat(teamSizes.get(1L)).isGreaterThan(teamSizes.get(10L) * 5);
+        assertThat(noTeam).isBetween(100, 300);
+    }
+
+    @Test
+    void sameSeedSameDataTest() {
+
+        List<String> first = usernames(new SyntheticMemberDataset(100, List.of(1L, 2L), 1.1, 0.02, 7));
+        List<String> second = usernames(new SyntheticMemberDataset(100, List.of(1L, 2L), 1.1, 0.02, 7));
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    private List<String> usernames(SyntheticMemberDataset dataset) {
+        List<String> usernames = new ArrayList<>();
+        dataset.forEachRemaining(row -> usernames.add(row.getUsername()));
+        return usernames;
+    }
+}
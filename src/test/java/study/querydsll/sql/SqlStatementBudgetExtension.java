@@ -0,0 +1,36 @@
+package study.querydsll.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 테스트 메서드 실행 구간(@BeforeEach 이후)의 SQL 실행 횟수를 집계하여 @SqlStatementBudget 초과 시 실패 처리
+ * 사용 : 테스트 클래스에 @ExtendWith(SqlStatementBudgetExtension.class)
+ */
+public class SqlStatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Scope scope = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), SqlStatementCounter.Scope.class);
+        scope.close();
+
+        SqlStatementBudget budget = context.getRequiredTestMethod().getAnnotation(SqlStatementBudget.class);
+        if (budget != null) {
+            assertThat(scope.getStatements())
+                    .as("sql statement budget of %s (jdbc time = %sms)",
+                            context.getRequiredTestMethod().getName(), scope.getJdbcMillis())
+                    .isLessThanOrEqualTo(budget.value());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package study.querydsll.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsll.entity.Member;
+import study.querydsll.entity.Team;
+import study.querydsll.entity.TeamStats;
+import study.querydsll.repository.MemberJpaRepository;
+import study.querydsll.repository.TeamStatsRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 팀 통계는 커밋 직전에 반영되므로 트랜잭션을 실제로 커밋하고, 끝나면 엔티티 리스너를 거쳐 삭제
+ */
+@SpringBootTest
+class TeamStatsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    TeamStatsRepairJob teamStatsRepairJob;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    TransactionTemplate tx;
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m", Member.class).getResultList().forEach(em::remove);
+            em.flush();
+            em.createQuery("select t from Team t", Team.class).getResultList().forEach(em::remove);
+        });
+    }
+
+    @Test
+    void incrementalStatsTest() {
+
+        tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member1 = new Member("member1", 10, teamA);
+            em.persist(member1);
+            em.persist(new Member("member2", 20, teamA));
+            Member member3 = new Member("member3", 30, teamB);
+            em.persist(member3);
+            return new Long[]{teamA.getId(), teamB.getId(), member1.getId(), member3.getId()};
+        });
+        Long teamA = ids[0];
+        Long teamB = ids[1];
+
+        assertStats(teamA, 2, 30, 10, 20);
+        assertStats(teamB, 1, 30, 30, 30);
+
+        // 팀 이동
+        tx.executeWithoutResult(status -> em.find(Member.class, ids[2]).changeTeam(em.find(Team.class, teamB)));
+        assertStats(teamA, 1, 20, 20, 20);
+        assertStats(teamB, 2, 40, 10, 30);
+
+        // 삭제 (최대 나이 제거 -> 다시 계산)
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, ids[3])));
+        assertStats(teamB, 1, 10, 10, 10);
+
+        // 재계산 결과도 같음 (행 단위 update / 없는 팀만 insert)
+        teamStatsRepairJob.repair();
+        assertStats(teamA, 1, 20, 20, 20);
+        assertStats(teamB, 1, 10, 10, 10);
+
+        // 통계 행이 없는 팀 : 재계산은 insert, 증분 반영은 집계로 생성
+        deleteStats(teamA);
+        teamStatsRepairJob.repair();
+        assertStats(teamA, 1, 20, 20, 20);
+
+        deleteStats(teamA);
+        tx.executeWithoutResult(status -> em.persist(new Member("member4", 40, em.find(Team.class, teamA))));
+        assertStats(teamA, 2, 60, 20, 40);
+    }
+
+    @Test
+    void markDirtyAfterCommitTest() {
+
+        tx = new TransactionTemplate(transactionManager);
+        teamStatsRepairJob.repairIfDirty();
+
+        // 벌크 연산 트랜잭션 커밋 전에는 재계산 대상이 아님
+        tx.executeWithoutResult(status -> {
+            memberJpaRepository.bulkAddAge(1, 0);
+            assertThat(teamStatsRepairJob.isDirty()).isFalse();
+        });
+        assertThat(teamStatsRepairJob.isDirty()).isTrue();
+
+        // 롤백되면 표시하지 않음
+        teamStatsRepairJob.repairIfDirty();
+        tx.executeWithoutResult(status -> {
+            memberJpaRepository.bulkAddAge(1, 0);
+            status.setRollbackOnly();
+        });
+        assertThat(teamStatsRepairJob.isDirty()).isFalse();
+    }
+
+    private void assertStats(Long teamId, long memberCount, long ageSum, int minAge, int maxAge) {
+        TeamStats stats = teamStatsRepository.findById(teamId).orElseThrow();
+        assertThat(stats.getMemberCount()).isEqualTo(memberCount);
+        assertThat(stats.getAgeSum()).isEqualTo(ageSum);
+        assertThat(stats.getMinAge()).isEqualTo(minAge);
+        assertThat(stats.getMaxAge()).isEqualTo(maxAge);
+    }
+
+    private void deleteStats(Long teamId) {
+        tx.executeWithoutResult(status -> em.createNativeQuery("delete from team_stats where team_id = ?")
+                .setParameter(1, teamId)
+                .executeUpdate());
+    }
+}